@@ -0,0 +1,30 @@
+package study.instrumentation;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 하이버네이트 statistics 활성화
+ * 값은 Actuator 의 HibernateMetricsAutoConfiguration 이 hibernate.* 메트릭으로 노출
+ * (hibernate.entities.loads, hibernate.entities.fetches, hibernate.second.level.cache.requests,
+ *  hibernate.query.executions.max, hibernate.flushes ...)
+ * 세션이 닫힐 때마다 남기는 통계 로그(StatisticalLoggingSessionEventListener)는 끔
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnClass({SessionFactory.class, HibernatePropertiesCustomizer.class})
+@ConditionalOnProperty(prefix = "jpa.instrumentation.hibernate-statistics", name = "enabled", matchIfMissing = true)
+public class HibernateStatisticsAutoConfiguration {
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateStatisticsCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.GENERATE_STATISTICS, true);
+            properties.put(AvailableSettings.LOG_SESSION_METRICS, false);
+        };
+    }
+}
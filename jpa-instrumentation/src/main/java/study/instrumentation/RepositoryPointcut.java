@@ -0,0 +1,39 @@
+package study.instrumentation;
+
+import org.springframework.aop.ClassFilter;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+
+/**
+ * 계측 대상: @Repository 클래스 + 스프링 데이터 리포지토리(인터페이스로 만든 프록시)의 public 메서드
+ */
+class RepositoryPointcut extends StaticMethodMatcherPointcut {
+
+    private static final Class<?> SPRING_DATA_REPOSITORY = loadSpringDataRepository();
+
+    @Override
+    public ClassFilter getClassFilter() {
+        return RepositoryPointcut::isRepository;
+    }
+
+    @Override
+    public boolean matches(Method method, Class<?> targetClass) {
+        return !ReflectionUtils.isObjectMethod(method);
+    }
+
+    static boolean isRepository(Class<?> clazz) {
+        return AnnotatedElementUtils.hasAnnotation(clazz, Repository.class)
+                || (SPRING_DATA_REPOSITORY != null && SPRING_DATA_REPOSITORY.isAssignableFrom(clazz));
+    }
+
+    private static Class<?> loadSpringDataRepository() {
+        String name = "org.springframework.data.repository.Repository";
+        ClassLoader classLoader = RepositoryPointcut.class.getClassLoader();
+        return ClassUtils.isPresent(name, classLoader) ? ClassUtils.resolveClassName(name, classLoader) : null;
+    }
+}
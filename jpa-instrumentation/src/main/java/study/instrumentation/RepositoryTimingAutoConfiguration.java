@@ -0,0 +1,37 @@
+package study.instrumentation;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+
+/**
+ * 리포지토리 메서드별 실행 시간 (repository.invocations)
+ * 인프라 역할 Advisor 로 등록 -> @EnableTransactionManagement 의 auto proxy creator 만 있어도 적용됨
+ * 트랜잭션, 예외 변환 advice 보다 바깥에서 측정 (커밋, 예외 변환 시간 포함)
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnClass(MeterRegistry.class)
+@ConditionalOnProperty(prefix = "jpa.instrumentation.repository", name = "enabled", matchIfMissing = true)
+public class RepositoryTimingAutoConfiguration {
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor repositoryTimingAdvisor(
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${jpa.instrumentation.repository.percentiles:0.5,0.95,0.99}") double[] percentiles,
+            @Value("${jpa.instrumentation.repository.histogram:true}") boolean histogram) {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(new RepositoryPointcut(),
+                new RepositoryTimingInterceptor(meterRegistry, percentiles, histogram));
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+}
@@ -0,0 +1,82 @@
+package study.instrumentation;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 리포지토리 메서드 실행 시간 -> repository.invocations{repository, method, exception}
+ * 정상 호출은 (리포지토리, 메서드)별 Timer 를 캐시해서 호출마다 Timer 조회/태그 생성을 하지 않음
+ */
+class RepositoryTimingInterceptor implements MethodInterceptor {
+
+    static final String METRIC_NAME = "repository.invocations";
+
+    private final ObjectProvider<MeterRegistry> registry; // 프록시 생성 시점에는 레지스트리가 아직 없을 수 있어서 첫 호출 때 조회
+    private final double[] percentiles;
+    private final boolean histogram;
+
+    private final Map<Class<?>, Map<Method, Timer>> timers = new ConcurrentHashMap<>();
+
+    RepositoryTimingInterceptor(ObjectProvider<MeterRegistry> registry, double[] percentiles, boolean histogram) {
+        this.registry = registry;
+        this.percentiles = percentiles;
+        this.histogram = histogram;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        long start = System.nanoTime();
+        try {
+            Object result = invocation.proceed();
+            timer(invocation).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (Throwable e) {
+            timer(invocation, e.getClass().getSimpleName()).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    private Timer timer(MethodInvocation invocation) {
+        // 스프링 데이터 리포지토리는 인터페이스 메서드(CrudRepository.findById 등)를 여러 리포지토리가 공유하므로 대상 클래스별로 구분
+        return timers.computeIfAbsent(targetClass(invocation), c -> new ConcurrentHashMap<>())
+                .computeIfAbsent(invocation.getMethod(), m -> timer(invocation, "none"));
+    }
+
+    private Timer timer(MethodInvocation invocation, String exception) {
+        return Timer.builder(METRIC_NAME)
+                .tag("repository", repositoryName(targetClass(invocation)))
+                .tag("method", invocation.getMethod().getName())
+                .tag("exception", exception)
+                .publishPercentiles(percentiles)
+                .publishPercentileHistogram(histogram)
+                .register(registry.getObject());
+    }
+
+    private static Class<?> targetClass(MethodInvocation invocation) {
+        return invocation.getThis() == null ? invocation.getMethod().getDeclaringClass() : invocation.getThis().getClass();
+    }
+
+    /**
+     * 스프링 데이터 리포지토리는 JDK 프록시라서 클래스 이름 대신 직접 만든 인터페이스 이름 (MemberRepository 등)
+     */
+    static String repositoryName(Class<?> targetClass) {
+        if (Proxy.isProxyClass(targetClass)) {
+            for (Class<?> candidate : targetClass.getInterfaces()) {
+                if (!candidate.getName().startsWith("org.springframework.")) {
+                    return candidate.getSimpleName();
+                }
+            }
+        }
+        return ClassUtils.getUserClass(targetClass).getSimpleName();
+    }
+}
@@ -0,0 +1,48 @@
+package study.instrumentation;
+
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.Entity;
+import javax.persistence.EntityManager;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.PersistenceContext;
+
+@SpringBootApplication
+@EnableJpaRepositories(considerNestedRepositories = true)
+public class InstrumentationTestApplication {
+
+    @Entity
+    public static class Sample {
+
+        @Id @GeneratedValue
+        private Long id;
+
+        public Long getId() {
+            return id;
+        }
+    }
+
+    // 스프링 데이터 리포지토리
+    public interface SampleRepository extends JpaRepository<Sample, Long> {
+    }
+
+    // 순수 JPA 리포지토리
+    @Repository
+    public static class SampleJpaRepository {
+
+        @PersistenceContext
+        private EntityManager em;
+
+        public Sample find(Long id) {
+            return em.find(Sample.class, id);
+        }
+
+        public Sample fail() {
+            throw new IllegalStateException("fail");
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package study.instrumentation;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessException;
+import study.instrumentation.InstrumentationTestApplication.Sample;
+import study.instrumentation.InstrumentationTestApplication.SampleJpaRepository;
+import study.instrumentation.InstrumentationTestApplication.SampleRepository;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class RepositoryTimingTest {
+
+    @Autowired SampleRepository sampleRepository;
+
+    @Autowired SampleJpaRepository sampleJpaRepository;
+
+    @Autowired MeterRegistry meterRegistry;
+
+    @Autowired EntityManagerFactory emf;
+
+    @Test
+    public void 스프링데이터_리포지토리_측정() throws Exception {
+        //given
+        Sample sample = sampleRepository.save(new Sample());
+        long before = count("SampleRepository", "findById", "none");
+
+        //when
+        sampleRepository.findById(sample.getId());
+        sampleRepository.findById(sample.getId());
+
+        //then
+        Timer timer = timer("SampleRepository", "findById", "none");
+        assertEquals(2, timer.count() - before);
+        assertEquals(3, timer.takeSnapshot().percentileValues().length, "p50, p95, p99 를 기록해야 한다.");
+    }
+
+    @Test
+    public void JPA_리포지토리_측정() throws Exception {
+        //given
+        long before = count("SampleJpaRepository", "find", "none");
+
+        //when
+        sampleJpaRepository.find(1L);
+        assertThrows(DataAccessException.class, () -> sampleJpaRepository.fail());
+
+        //then
+        assertEquals(1, count("SampleJpaRepository", "find", "none") - before);
+        assertEquals(1, count("SampleJpaRepository", "fail", "InvalidDataAccessApiUsageException"),
+                "예외 변환까지 포함해서 측정해야 한다.");
+    }
+
+    @Test
+    public void 하이버네이트_통계() throws Exception {
+        //given
+        Sample sample = sampleRepository.save(new Sample());
+
+        //when
+        sampleJpaRepository.find(sample.getId());
+
+        //then
+        assertTrue(emf.unwrap(SessionFactory.class).getStatistics().isStatisticsEnabled());
+        assertNotNull(meterRegistry.find("hibernate.query.executions.max").timeGauge(), "Actuator 로 하이버네이트 통계를 노출해야 한다.");
+        assertTrue(meterRegistry.get("hibernate.entities.loads").functionCounter().count() >= 1);
+    }
+
+    private long count(String repository, String method, String exception) {
+        Timer timer = meterRegistry.find(RepositoryTimingInterceptor.METRIC_NAME)
+                .tag("repository", repository)
+                .tag("method", method)
+                .tag("exception", exception)
+                .timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    private Timer timer(String repository, String method, String exception) {
+        return meterRegistry.get(RepositoryTimingInterceptor.METRIC_NAME)
+                .tag("repository", repository)
+                .tag("method", method)
+                .tag("exception", exception)
+                .timer();
+    }
+}
@@ -0,0 +1,80 @@
+package jpabook.jpashop.bench;
+
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Delivery;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.domain.Order;
+import jpabook.jpashop.domain.OrderItem;
+import jpabook.jpashop.domain.item.Book;
+import jpabook.jpashop.domain.item.Item;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 벤치마크 데이터 생성: members x ordersPerMember 주문, 주문당 itemsPerOrder 개 상품
+ * 회원 단위로(membersPerTx 로 묶을 수 있음) 트랜잭션을 끊고 flush/clear 해서 영속성 컨텍스트가 커지지 않도록 함
+ */
+public class BenchDataGenerator {
+
+    private final TransactionTemplate tx;
+    private final EntityManager em;
+    private int membersPerTx = 1;
+
+    public BenchDataGenerator(JpashopContext context) {
+        this.tx = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        this.em = context.getBean(EntityManager.class); // 트랜잭션에 바인딩되는 공유 EntityManager 프록시
+    }
+
+    /**
+     * 트랜잭션 하나에서 만들 회원 수 (회원 수십만 명 이상일 때 커밋 횟수 줄이기)
+     */
+    public BenchDataGenerator membersPerTx(int membersPerTx) {
+        this.membersPerTx = membersPerTx;
+        return this;
+    }
+
+    public void generate(int members, int ordersPerMember, int itemsPerOrder, int catalogSize) {
+        List<Long> itemIds = tx.execute(status -> {
+            List<Long> ids = new ArrayList<>();
+            for (int i = 0; i < catalogSize; i++) {
+                Book book = new Book();
+                book.setName("BENCH BOOK " + i);
+                book.setPrice(10000 + i);
+                book.setStockQuantity(Integer.MAX_VALUE);
+                em.persist(book);
+                ids.add(book.getId());
+            }
+            return ids;
+        });
+
+        for (int from = 0; from < members; from += membersPerTx) {
+            int start = from;
+            int end = Math.min(members, from + membersPerTx);
+            tx.executeWithoutResult(status -> {
+                for (int memberNo = start; memberNo < end; memberNo++) {
+                    Member member = new Member();
+                    member.setName("member" + memberNo);
+                    member.setAddress(new Address("city" + memberNo % 100, "street" + memberNo, "123-123"));
+                    em.persist(member);
+
+                    for (int o = 0; o < ordersPerMember; o++) {
+                        OrderItem[] orderItems = new OrderItem[itemsPerOrder];
+                        for (int i = 0; i < itemsPerOrder; i++) {
+                            Item item = em.find(Item.class, itemIds.get((memberNo + o + i) % itemIds.size()));
+                            orderItems[i] = OrderItem.createOrderItem(item, item.getPrice(), 1 + i);
+                        }
+                        Delivery delivery = new Delivery();
+                        delivery.setAddress(member.getAddress());
+                        em.persist(Order.createOrder(member, delivery, orderItems));
+                    }
+                }
+                em.flush();
+                em.clear();
+            });
+        }
+    }
+}
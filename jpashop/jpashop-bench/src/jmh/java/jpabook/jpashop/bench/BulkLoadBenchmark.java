@@ -0,0 +1,71 @@
+package jpabook.jpashop.bench;
+
+import jpabook.jpashop.bulk.BulkLoadMode;
+import jpabook.jpashop.bulk.BulkLoadResult;
+import jpabook.jpashop.bulk.BulkLoader;
+import jpabook.jpashop.bulk.SeedGenerator;
+import jpabook.jpashop.repository.ItemRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BulkLoader 적재 처리량: JPA(persist + chunk 마다 flush/clear) vs JDBC(batchUpdate)
+ * 1 op = 회원 1000명 (회원마다 주문 2개, 주문상품 2개 -> 9000 row)
+ * -prof gc 의 gc.alloc.rate.norm 이 op 마다 일정하면 적재량과 상관없이 메모리 일정
+ * 적재한 row 처리량은 load:rows (초당 row 수)
+ *
+ * ./gradlew :jpashop-bench:jmh -Pinclude=BulkLoad
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BulkLoadBenchmark {
+
+    private static final int MEMBERS_PER_OP = 1000;
+
+    @Param({"JPA", "JDBC"})
+    BulkLoadMode mode;
+
+    JpashopContext context;
+    BulkLoader bulkLoader;
+    SeedGenerator.Catalog catalog;
+
+    long ops;
+
+    // 적재한 row 수: OPERATIONS 라서 op 처럼 측정 시간으로 나눈 값 (rows/s) 으로 나옴
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Rows {
+        public long rows;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            rows = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = JpashopContext.start("--jpashop.member-name-index.enabled=false"); // JDBC 적재 후 색인 다시 읽기 제외
+        bulkLoader = context.getBean(BulkLoader.class);
+        bulkLoader.loadBooks(SeedGenerator.books("bench-", 100), BulkLoadMode.JDBC);
+        catalog = (SeedGenerator.Catalog) context.execute(() -> new SeedGenerator.Catalog(context.getBean(ItemRepository.class).findIdAndPrices()));
+    }
+
+    @Benchmark
+    public long load(Rows counters) {
+        BulkLoadResult result = bulkLoader.loadMembers(
+                SeedGenerator.members("bench" + ops++ + "-", MEMBERS_PER_OP, 2, 2, catalog), mode);
+        counters.rows += result.getRows();
+        return result.getRows();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+}
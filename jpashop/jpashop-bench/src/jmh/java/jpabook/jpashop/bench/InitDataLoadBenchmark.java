@@ -0,0 +1,93 @@
+package jpabook.jpashop.bench;
+
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Delivery;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.domain.Order;
+import jpabook.jpashop.domain.OrderItem;
+import jpabook.jpashop.domain.item.Book;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * InitDB 형태 데이터 적재(회원 1 + 상품 2 + 주문 1 + 주문상품 2 + 배송 1) insert 처리량
+ * allocationSize 1: insert 마다 시퀀스 조회 / 50: pooled-lo 로 50개씩 미리 확보 (+ JDBC batch insert)
+ * 1 op = 트랜잭션 1번 (dbInit dbInitPerTx 건 적재), dbInit 1건당 SQL 수 = load:statements / (load:calls x dbInitPerTx)
+ *
+ * ./gradlew :jpashop-bench:jmh -Pinclude=InitDataLoad
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InitDataLoadBenchmark {
+
+    @Param({"1", "50"})
+    int allocationSize;
+
+    @Param({"1", "100"})
+    int dbInitPerTx;
+
+    JpashopContext context;
+    TransactionTemplate tx;
+    EntityManager em;
+
+    long loads;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = JpashopContext.start("--jpashop.id.allocation-size=" + allocationSize);
+        tx = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        em = context.getBean(EntityManager.class);
+    }
+
+    @Benchmark
+    public void load(SqlCounters counters) {
+        counters.call(context);
+        tx.executeWithoutResult(status -> {
+            for (int i = 0; i < dbInitPerTx; i++) {
+                dbInit(loads++);
+            }
+            em.flush();
+            em.clear();
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private void dbInit(long n) {
+        Member member = new Member();
+        member.setName("user" + n);
+        member.setAddress(new Address("서울", String.valueOf(n), "1111"));
+        em.persist(member);
+
+        Book book1 = createBook("JPA1 BOOK " + n, 10000);
+        em.persist(book1);
+        Book book2 = createBook("JPA2 BOOK " + n, 20000);
+        em.persist(book2);
+
+        OrderItem orderItem1 = OrderItem.createOrderItem(book1, 10000, 1);
+        OrderItem orderItem2 = OrderItem.createOrderItem(book2, 20000, 2);
+
+        Delivery delivery = new Delivery();
+        delivery.setAddress(member.getAddress());
+        em.persist(Order.createOrder(member, delivery, orderItem1, orderItem2));
+    }
+
+    private Book createBook(String name, int price) {
+        Book book = new Book();
+        book.setName(name);
+        book.setPrice(price);
+        book.setStockQuantity(100);
+        return book;
+    }
+}
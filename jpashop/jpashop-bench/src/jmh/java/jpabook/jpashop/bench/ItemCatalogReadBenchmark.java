@@ -0,0 +1,67 @@
+package jpabook.jpashop.bench;
+
+import jpabook.jpashop.domain.item.Item;
+import jpabook.jpashop.service.ItemService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * 상품 조회(ItemController.list / 상품 수정폼) 부하: 2차 캐시 on/off 비교
+ * 1 op = 목록 조회 1번 + 단건 조회 lookupsPerList 번, op 당 SQL 실행 수 = read:statements / read:calls (SqlCounters)
+ *
+ * ./gradlew :jpashop-bench:jmh -Pinclude=ItemCatalogRead
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemCatalogReadBenchmark {
+
+    @Param({"false", "true"})
+    boolean cache;
+
+    @Param({"500"})
+    int catalogSize;
+
+    @Param({"10"})
+    int lookupsPerList;
+
+    JpashopContext context;
+    ItemService itemService;
+    List<Long> itemIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = JpashopContext.start("--jpashop.cache.enabled=" + cache);
+        new BenchDataGenerator(context).generate(0, 0, 0, catalogSize);
+        itemService = context.getBean(ItemService.class);
+        itemIds = itemService.findItems().stream()
+                .map(Item::getId)
+                .collect(toList());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public int read(SqlCounters counters) {
+        counters.call(context);
+        int size = (Integer) context.execute(() -> itemService.findItems().size());
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < lookupsPerList; i++) {
+            Long itemId = itemIds.get(random.nextInt(itemIds.size()));
+            size += ((Item) context.execute(() -> itemService.findOne(itemId))).getPrice();
+        }
+        return size;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+}
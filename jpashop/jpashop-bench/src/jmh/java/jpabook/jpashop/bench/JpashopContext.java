@@ -0,0 +1,114 @@
+package jpabook.jpashop.bench;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jpabook.jpashop.JpashopApplication;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * 벤치마크용 jpashop 컨테이너
+ * H2 in-memory + 웹 서버 없이 띄우고 (startServer 는 톰캣 포함), SQL 로그는 끔
+ */
+public class JpashopContext implements AutoCloseable {
+
+    private final ConfigurableApplicationContext context;
+    private final TransactionTemplate readOnlyTx;
+    private final ObjectMapper objectMapper;
+    private final Statistics statistics;
+
+    private JpashopContext(ConfigurableApplicationContext context) {
+        this.context = context;
+        this.readOnlyTx = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        this.readOnlyTx.setReadOnly(true);
+        this.objectMapper = context.getBean(ObjectMapper.class);
+        this.statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * @param args 추가 설정 (--key=value), application.yml 보다 우선 적용
+     */
+    public static JpashopContext start(String... args) {
+        return start(WebApplicationType.NONE, args);
+    }
+
+    /**
+     * 톰캣까지 띄움 (랜덤 포트, port() 로 확인)
+     */
+    public static JpashopContext startServer(String... args) {
+        String[] all = Arrays.copyOf(args, args.length + 1);
+        all[args.length] = "--server.port=0";
+        return start(WebApplicationType.SERVLET, all);
+    }
+
+    private static JpashopContext start(WebApplicationType webApplicationType, String... args) {
+        String[] defaults = {
+                "--spring.main.banner-mode=off",
+                "--spring.datasource.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1",
+                "--spring.jpa.properties.hibernate.generate_statistics=true", // SQL 실행 횟수 측정용
+                "--decorator.datasource.p6spy.enable-logging=false",
+                "--logging.level.root=warn",
+                "--logging.level.org.hibernate.SQL=warn",
+                "--logging.level.org.hibernate.type=warn",
+                "--logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=warn"
+        };
+        String[] all = Arrays.copyOf(defaults, defaults.length + args.length);
+        System.arraycopy(args, 0, all, defaults.length, args.length);
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(JpashopApplication.class)
+                .web(webApplicationType)
+                .run(all);
+        return new JpashopContext(context);
+    }
+
+    public int port() {
+        return Integer.parseInt(context.getEnvironment().getProperty("local.server.port"));
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    /**
+     * API 요청 1번 흉내: 트랜잭션(OSIV 대신) 안에서 조회 + JSON 직렬화까지 (지연로딩 포함)
+     */
+    public int request(Supplier<?> handler) {
+        Integer size = readOnlyTx.execute(status -> {
+            try {
+                return objectMapper.writeValueAsBytes(handler.get()).length;
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        return size == null ? 0 : size;
+    }
+
+    /**
+     * 직렬화 없이 핸들러만 실행 (엔티티를 그대로 반환하는 v1은 양방향 연관관계 때문에 직렬화가 무한루프)
+     */
+    public Object execute(Supplier<?> handler) {
+        return readOnlyTx.execute(status -> handler.get());
+    }
+
+    public long statementCount() {
+        return statistics.getPrepareStatementCount();
+    }
+
+    public Statistics statistics() {
+        return statistics;
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
@@ -0,0 +1,64 @@
+package jpabook.jpashop.bench;
+
+import jpabook.jpashop.bulk.BulkLoadMode;
+import jpabook.jpashop.bulk.BulkLoader;
+import jpabook.jpashop.bulk.SeedGenerator;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.repository.MemberNameFilter;
+import jpabook.jpashop.service.MemberService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 회원 가입 중복 검사: 매번 select vs MemberNameFilter(Bloom) 로 새 이름은 select 생략
+ * 회원 members 명을 JDBC 로 적재한 뒤 새 이름으로 가입
+ * 가입 1건당 SQL 수 = join:statements / join:calls (SqlCounters), 필터 크기/추정 오탐률은 끝날 때 출력
+ *
+ * ./gradlew :jpashop-bench:jmh -Pinclude=MemberJoin
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class MemberJoinBenchmark {
+
+    @Param({"false", "true"})
+    boolean filter;
+
+    @Param({"200000"})
+    int members;
+
+    JpashopContext context;
+    MemberService memberService;
+
+    long joins;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = JpashopContext.start("--jpashop.member-name-filter.enabled=" + filter,
+                "--jpashop.member-name-index.enabled=false"); // JDBC 적재 후 색인 다시 읽기 제외
+        context.getBean(BulkLoader.class).loadMembers(
+                SeedGenerator.members("bench-", members, 0, 0, new SeedGenerator.Catalog(Collections.emptyList())), BulkLoadMode.JDBC);
+        memberService = context.getBean(MemberService.class);
+    }
+
+    @Benchmark
+    public Long join(SqlCounters counters) {
+        counters.call(context);
+        Member member = new Member();
+        member.setName("join" + joins++);
+        return memberService.join(member);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        MemberNameFilter memberNameFilter = context.getBean(MemberNameFilter.class);
+        System.out.printf("%n[filter] enabled=%s names=%d bits=%d hashes=%d fpp=%.5f%n",
+                filter, members + joins, memberNameFilter.getNumBits(), memberNameFilter.getNumHashes(), memberNameFilter.estimatedFpp());
+        context.close();
+    }
+}
@@ -0,0 +1,59 @@
+package jpabook.jpashop.bench;
+
+import jpabook.jpashop.repository.MemberNameIndex;
+import jpabook.jpashop.repository.OrderRepository;
+import jpabook.jpashop.repository.OrderSearch;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 주문 검색(회원 이름 부분 일치): like '%name%' vs MemberNameIndex(trigram) + member_id in (...)
+ * 회원마다 주문 1건, 검색어는 회원 1명만 걸리는 이름 중간 부분 ("ber" + 회원 번호)
+ * 검색 1번당 SQL 수 = search:statements / search:calls (SqlCounters), 색인 재구성(rebuild) 시간은 setup 에서 출력
+ *
+ * ./gradlew :jpashop-bench:jmh -Pinclude=MemberNameSearch
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms3g", "-Xmx3g"})
+public class MemberNameSearchBenchmark {
+
+    @Param({"false", "true"})
+    boolean index;
+
+    @Param({"1000000"})
+    int members;
+
+    JpashopContext context;
+    OrderRepository orderRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = JpashopContext.start("--jpashop.member-name-index.enabled=" + index);
+        new BenchDataGenerator(context).membersPerTx(1000).generate(members, 1, 1, 10);
+        orderRepository = context.getBean(OrderRepository.class);
+
+        long start = System.nanoTime();
+        int indexed = context.getBean(MemberNameIndex.class).rebuild();
+        System.out.printf("%n[index] enabled=%s indexed=%d rebuild=%dms%n",
+                index, indexed, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    @Benchmark
+    public int search(SqlCounters counters) {
+        counters.call(context);
+        OrderSearch orderSearch = new OrderSearch();
+        orderSearch.setMemberName("ber" + ThreadLocalRandom.current().nextInt(members / 10, members));
+        return (Integer) context.execute(() -> orderRepository.findAllByCriteria(orderSearch).size());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+}
@@ -0,0 +1,80 @@
+package jpabook.jpashop.bench;
+
+import jpabook.jpashop.bulk.BulkLoadMode;
+import jpabook.jpashop.bulk.BulkLoader;
+import jpabook.jpashop.bulk.SeedGenerator;
+import jpabook.jpashop.repository.ItemRepository;
+import jpabook.jpashop.repository.OrderRepository;
+import jpabook.jpashop.service.OrderService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 상품 1개를 주문한 주문 전체 취소: 주문마다 cancelOrder (엔티티 조회 + dirty checking) vs cancelOrdersByItem (set 기반 update)
+ * iteration 마다 회원 1000명 x 주문 2개 x 주문상품 2개를 새로 적재하고, 상품 10개 중 1개의 주문(약 400건)을 취소
+ * 취소 1번당 SQL 수 = cancel:statements / cancel:calls (SqlCounters)
+ *
+ * ./gradlew :jpashop-bench:jmh -Pinclude=OrderBulkCancel
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+@Fork(1)
+public class OrderBulkCancelBenchmark {
+
+    @Param({"loop", "bulk"})
+    String mode;
+
+    JpashopContext context;
+    BulkLoader bulkLoader;
+    OrderService orderService;
+    OrderRepository orderRepository;
+    TransactionTemplate tx;
+    List<Object[]> items; // [id, price]
+    SeedGenerator.Catalog catalog;
+
+    int iteration;
+    Long itemId;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        context = JpashopContext.start("--jpashop.member-name-index.enabled=false");
+        bulkLoader = context.getBean(BulkLoader.class);
+        orderService = context.getBean(OrderService.class);
+        orderRepository = context.getBean(OrderRepository.class);
+        tx = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        bulkLoader.loadBooks(SeedGenerator.books("bench-", 10), BulkLoadMode.JDBC);
+        items = (List<Object[]>) context.execute(() -> context.getBean(ItemRepository.class).findIdAndPrices());
+        catalog = new SeedGenerator.Catalog(items);
+    }
+
+    @Setup(Level.Iteration)
+    public void loadOrders() {
+        bulkLoader.loadMembers(SeedGenerator.members("bench" + iteration++ + "-", 1000, 2, 2, catalog), BulkLoadMode.JDBC);
+        itemId = (Long) items.get(iteration % items.size())[0];
+    }
+
+    @Benchmark
+    public int cancel(SqlCounters counters) {
+        counters.call(context);
+        return "bulk".equals(mode)
+                ? orderService.cancelOrdersByItem(itemId)
+                : tx.execute(status -> {
+                    List<Long> ids = orderRepository.findCancelableIdsByItemAfter(itemId, 0L, Integer.MAX_VALUE);
+                    ids.forEach(orderService::cancelOrder);
+                    return ids.size();
+                });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+}
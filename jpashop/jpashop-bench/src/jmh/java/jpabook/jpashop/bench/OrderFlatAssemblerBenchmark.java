@@ -0,0 +1,65 @@
+package jpabook.jpashop.bench;
+
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.OrderStatus;
+import jpabook.jpashop.repository.order.query.OrderFlatAssembler;
+import jpabook.jpashop.repository.order.query.OrderFlatDTO;
+import jpabook.jpashop.repository.order.query.OrderItemQueryDTO;
+import jpabook.jpashop.repository.order.query.OrderQueryDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.stream.Collectors.*;
+
+/**
+ * orderV6 flat row 조립: 기존 groupingBy vs OrderFlatAssembler
+ * rows = flat row 수 (주문당 itemsPerOrder 개 row, order id 순 정렬)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class OrderFlatAssemblerBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    int rows;
+
+    @Param({"2"})
+    int itemsPerOrder;
+
+    List<OrderFlatDTO> flats;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        flats = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            long orderId = i / itemsPerOrder + 1;
+            Address address = new Address("서울", "street" + orderId, "123-123");
+            flats.add(new OrderFlatDTO(orderId, "member" + orderId, now, OrderStatus.ORDER, address,
+                    10000 * itemsPerOrder, "item" + i, 10000, 1));
+        }
+    }
+
+    @Benchmark
+    public List<OrderQueryDTO> collectGroupingBy() {
+        return flats.stream()
+                .collect(groupingBy(o -> new OrderQueryDTO(o.getOrderId(), o.getName(), o.getOrderDate(), o.getOrderStatus(), o.getAddress(), o.getTotalPrice()),
+                        mapping(o -> new OrderItemQueryDTO(o.getOrderId(), o.getItemName(), o.getOrderPrice(), o.getCount()), toList())))
+                .entrySet()
+                .stream()
+                .map(e -> new OrderQueryDTO(e.getKey().getOrderId(), e.getKey().getName(), e.getKey().getOrderDate(), e.getKey().getOrderStatus(), e.getKey().getAddress(), e.getKey().getTotalPrice(), e.getValue()))
+                .collect(toList());
+    }
+
+    @Benchmark
+    public List<OrderQueryDTO> flatAssembler() {
+        return OrderFlatAssembler.assemble(flats);
+    }
+}
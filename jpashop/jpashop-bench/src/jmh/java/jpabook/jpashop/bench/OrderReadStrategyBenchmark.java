@@ -0,0 +1,124 @@
+package jpabook.jpashop.bench;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jpabook.jpashop.api.OrderApiController;
+import jpabook.jpashop.api.OrderJsonWriter;
+import jpabook.jpashop.api.OrderSimpleApiController;
+import jpabook.jpashop.repository.order.query.OrderFlatDTO;
+import jpabook.jpashop.repository.order.query.OrderQueryRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * 주문 조회 전략별 비교 (OrderSimpleApiController v1~v4, OrderApiController v1~v7)
+ * - simpleV1/V2: 엔티티 조회 + 지연로딩(N+1), simpleV3: fetch join, simpleV4: DTO 직접 조회
+ * - orderV1/V2: 컬렉션 지연로딩(N+1), orderV3: 컬렉션 fetch join, orderV4: DTO + 주문당 쿼리(N+1)
+ * - orderV5: DTO + in 쿼리, orderV6: flat row 1번 조회
+ * - orderV7: JDBC row -> OrderJsonWriter (DTO 없이 JSON), orderV7Flat: OrderFlatDTO 목록 -> OrderJsonWriter
+ * throughput, p99(SampleTime), 할당량(gc profiler), 요청당 SQL 실행 수(SqlCounters: read:statements / read:calls)를 함께 측정
+ * (v1은 엔티티를 그대로 반환해 직렬화가 불가능하므로 핸들러 실행까지만 측정)
+ *
+ * ./gradlew :jpashop-bench:jmh -Pinclude=OrderReadStrategy
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderReadStrategyBenchmark {
+
+    @Param({"simpleV1", "simpleV2", "simpleV3", "simpleV4",
+            "orderV1", "orderV2", "orderV3", "orderV4", "orderV5", "orderV6", "orderV7", "orderV7Flat"})
+    String strategy;
+
+    @Param({"100"})
+    int members;
+
+    @Param({"10"})
+    int ordersPerMember;
+
+    @Param({"3"})
+    int itemsPerOrder;
+
+    @Param({"50"})
+    int catalogSize;
+
+    JpashopContext context;
+    Supplier<?> handler;
+    boolean serialize;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = JpashopContext.start();
+        new BenchDataGenerator(context).generate(members, ordersPerMember, itemsPerOrder, catalogSize);
+        handler = handler(strategy);
+        serialize = !strategy.endsWith("V1") && !strategy.startsWith("orderV7"); // v7 은 핸들러가 직접 씀
+    }
+
+    @Benchmark
+    public Object read(SqlCounters counters) {
+        counters.call(context);
+        return serialize ? context.request(handler) : context.execute(handler);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private Supplier<?> handler(String strategy) {
+        OrderSimpleApiController simple = context.getBean(OrderSimpleApiController.class);
+        OrderApiController order = context.getBean(OrderApiController.class);
+
+        switch (strategy) {
+            case "simpleV1": return simple::ordersV1;
+            case "simpleV2": return simple::ordersV2;
+            case "simpleV3": return simple::ordersV3;
+            case "simpleV4": return simple::ordersV4;
+            case "orderV1": return order::ordersV1;
+            case "orderV2": return order::ordersV2;
+            case "orderV3": return order::orderV3;
+            case "orderV4": return order::orderV4;
+            case "orderV5": return order::orderV5;
+            case "orderV6": return order::orderV6;
+            case "orderV7": return () -> writeV7(writer -> context.getBean(OrderQueryRepository.class).streamAllFlatRows(rs -> {
+                try {
+                    writer.write(rs);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+            case "orderV7Flat": return () -> writeV7(writer -> {
+                try {
+                    for (OrderFlatDTO flat : context.getBean(OrderQueryRepository.class).findAllByDTO_flat()) {
+                        writer.write(flat);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            default: throw new IllegalArgumentException("unknown strategy: " + strategy);
+        }
+    }
+
+    // 응답 대신 byte 배열에 씀 (v2~v6 의 writeValueAsBytes 와 같은 조건), 쓴 byte 수
+    private int writeV7(Consumer<OrderJsonWriter> rows) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator generator = context.getBean(ObjectMapper.class).getFactory().createGenerator(out)) {
+            OrderJsonWriter writer = OrderJsonWriter.array(generator);
+            rows.accept(writer);
+            writer.finish();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.size();
+    }
+}
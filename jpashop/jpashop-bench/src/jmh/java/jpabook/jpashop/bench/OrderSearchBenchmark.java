@@ -0,0 +1,138 @@
+package jpabook.jpashop.bench;
+
+import com.sun.management.OperatingSystemMXBean;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.domain.Order;
+import jpabook.jpashop.domain.OrderStatus;
+import jpabook.jpashop.repository.OrderRepository;
+import jpabook.jpashop.repository.OrderSearch;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.util.StringUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.*;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 주문 검색(OrderRepository.findAllByCriteria): 호출마다 Criteria 트리 생성 vs 조건 조합별 named query
+ * 결과 행 수가 아니라 쿼리 생성/플랜 비용을 보려고, 결과가 0~1건인 조건만 사용
+ * (상태 = CANCEL 주문은 없음, 이름 = member10 ~ member99 중 하나)
+ * 검색 1번당 프로세스 CPU 시간 = search:cpuMicros / search:calls, 하이버네이트 쿼리 플랜 캐시 search:planCacheHits / planCacheMisses
+ *
+ * ./gradlew :jpashop-bench:jmh -Pinclude=OrderSearch
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderSearchBenchmark {
+
+    @Param({"criteria", "namedQuery"})
+    String strategy;
+
+    @Param({"status", "name", "statusAndName"})
+    String shape;
+
+    @Param({"100"})
+    int members;
+
+    JpashopContext context;
+    OrderRepository orderRepository;
+    EntityManager em;
+
+    // 측정 iteration 동안의 검색 수, 프로세스 CPU 시간, 플랜 캐시 hit/miss (iteration 의 첫 검색 전부터)
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class SearchCounters {
+
+        private static final OperatingSystemMXBean OS = (OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+
+        public long calls;
+
+        private JpashopContext context;
+        private long cpuAtStart;
+        private long hitsAtStart;
+        private long missesAtStart;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            calls = 0;
+            context = null;
+        }
+
+        void call(JpashopContext context) {
+            if (this.context == null) {
+                this.context = context;
+                cpuAtStart = OS.getProcessCpuTime();
+                hitsAtStart = context.statistics().getQueryPlanCacheHitCount();
+                missesAtStart = context.statistics().getQueryPlanCacheMissCount();
+            }
+            calls++;
+        }
+
+        public double cpuMicros() {
+            return context == null ? 0 : (OS.getProcessCpuTime() - cpuAtStart) / 1000.0;
+        }
+
+        public long planCacheHits() {
+            return context == null ? 0 : context.statistics().getQueryPlanCacheHitCount() - hitsAtStart;
+        }
+
+        public long planCacheMisses() {
+            return context == null ? 0 : context.statistics().getQueryPlanCacheMissCount() - missesAtStart;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = JpashopContext.start();
+        new BenchDataGenerator(context).generate(members, 1, 1, 10);
+        orderRepository = context.getBean(OrderRepository.class);
+        em = context.getBean(EntityManager.class);
+    }
+
+    @Benchmark
+    public Object search(SearchCounters counters) {
+        counters.call(context);
+        OrderSearch orderSearch = new OrderSearch();
+        if (!shape.equals("name")) {
+            orderSearch.setOrderStatus(OrderStatus.CANCEL);
+        }
+        if (!shape.equals("status")) {
+            orderSearch.setMemberName("member" + ThreadLocalRandom.current().nextInt(members / 10, members));
+        }
+        return context.execute(() -> strategy.equals("criteria")
+                ? findAllByCriteriaTree(orderSearch)
+                : orderRepository.findAllByCriteria(orderSearch));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // 변경 전 OrderRepository.findAllByCriteria (비교 기준)
+    private List<Order> findAllByCriteriaTree(OrderSearch orderSearch) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Order> cq = cb.createQuery(Order.class);
+        Root<Order> o = cq.from(Order.class);
+        Join<Order, Member> m = o.join("member", JoinType.INNER);
+
+        List<Predicate> criteria = new ArrayList<>();
+        if (orderSearch.getOrderStatus() != null) {
+            criteria.add(cb.equal(o.get("status"), orderSearch.getOrderStatus()));
+        }
+        if (StringUtils.hasText(orderSearch.getMemberName())) {
+            criteria.add(cb.like(m.<String>get("name"), "%" + orderSearch.getMemberName() + "%"));
+        }
+
+        cq.where(cb.and(criteria.toArray(new Predicate[criteria.size()])));
+        return em.createQuery(cq).setMaxResults(1000).getResultList();
+    }
+}
@@ -0,0 +1,55 @@
+package jpabook.jpashop.bench;
+
+import com.p6spy.engine.logging.Category;
+import jpabook.jpashop.formatter.P6spyCachedSqlFormatter;
+import jpabook.jpashop.formatter.P6spyPrettySqlFormatter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * P6spy 로그 포맷 비용: 기존 P6spyPrettySqlFormatter vs P6spyCachedSqlFormatter
+ * 같은 형태의 SQL이 바인딩 값만 바뀌어 반복 실행되는 상황
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class P6spyFormatterBenchmark {
+
+    private static final String PREPARED =
+            "select order0_.order_id as order_id1_6_0_, member1_.member_id as member_i1_4_1_, delivery2_.delivery_id as delivery1_2_2_," +
+            " order0_.delivery_id as delivery4_6_0_, order0_.member_id as member_i5_6_0_, order0_.order_date as order_da2_6_0_," +
+            " order0_.status as status3_6_0_, member1_.city as city2_4_1_, member1_.street as street3_4_1_, member1_.zipcode as zipcode4_4_1_," +
+            " member1_.name as name5_4_1_, delivery2_.city as city2_2_2_, delivery2_.street as street3_2_2_, delivery2_.zipcode as zipcode4_2_2_," +
+            " delivery2_.status as status5_2_2_ from orders order0_ inner join member member1_ on order0_.member_id=member1_.member_id" +
+            " inner join delivery delivery2_ on order0_.delivery_id=delivery2_.delivery_id where order0_.status=? and member1_.name like ? limit ?";
+
+    P6spyPrettySqlFormatter pretty = new P6spyPrettySqlFormatter();
+    P6spyCachedSqlFormatter cached = new P6spyCachedSqlFormatter();
+
+    String category = Category.STATEMENT.getName();
+    String[] executed = new String[64];
+    int next;
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < executed.length; i++) {
+            executed[i] = PREPARED.replaceFirst("\\?", "'ORDER'").replaceFirst("\\?", "'%user" + i + "%'").replaceFirst("\\?", "1000");
+        }
+    }
+
+    @Benchmark
+    public String prettyFormatter() {
+        String sql = executed[next++ & 63];
+        return pretty.formatMessage(1, "1600000000000", 3, category, PREPARED, sql, "jdbc:h2:mem:test");
+    }
+
+    @Benchmark
+    public String cachedFormatter() {
+        String sql = executed[next++ & 63];
+        return cached.formatMessage(1, "1600000000000", 3, category, PREPARED, sql, "jdbc:h2:mem:test");
+    }
+}
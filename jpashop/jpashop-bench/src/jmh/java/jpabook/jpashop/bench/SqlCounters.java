@@ -0,0 +1,46 @@
+package jpabook.jpashop.bench;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+/**
+ * JMH 보조 결과(@AuxCounters): 측정 iteration 동안 실행된 SQL 수(statements)와 벤치마크 호출 수(calls)
+ * 결과 표/JSON 에 <benchmark>:statements, <benchmark>:calls 로 나오고, 호출 1번당 SQL 수 = statements / calls
+ * - EVENTS 는 측정 iteration 값을 모두 더해서 보여주므로 iteration 마다 0 부터 다시 셈
+ * - SQL 수는 하이버네이트 statistics(프로세스 전체)의 증가분: 스레드가 여러 개면 스레드 수로 나눠서 합계가 맞도록 함
+ *
+ * 벤치마크 메서드 파라미터로 받아서 호출마다 call(context) (SQL 실행 전에)
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.EVENTS)
+public class SqlCounters {
+
+    public long calls;
+
+    private JpashopContext context;
+    private int threads;
+    private long statementsAtStart;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkParams params) {
+        threads = params.getThreads();
+    }
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        calls = 0;
+        context = null;
+    }
+
+    public void call(JpashopContext context) {
+        if (this.context == null) {
+            this.context = context;
+            statementsAtStart = context.statementCount(); // iteration 의 첫 호출 전 (@Setup 에서 실행한 SQL 은 제외)
+        }
+        calls++;
+    }
+
+    public double statements() {
+        return context == null ? 0 : (double) (context.statementCount() - statementsAtStart) / threads;
+    }
+}
@@ -0,0 +1,75 @@
+package jpabook.jpashop.bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 바뀌지 않은 주문 목록(/api/v5/orders) 반복 조회: 매번 조회 + 직렬화 vs ETag 304 vs 응답 캐시
+ * - off: jpashop.http-cache.enabled=false
+ * - etag: 첫 응답의 ETag 를 If-None-Match 로 보냄 (304, body 없음)
+ * - cache: If-None-Match 없이 응답 캐시에서 JSON 그대로
+ * 요청 1건당 SQL 수 = get:statements / get:calls (SqlCounters), 응답 크기 = get:bytes / get:calls
+ *
+ * ./gradlew :jpashop-bench:jmh -Pinclude=VersionedResource
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VersionedResourceBenchmark {
+
+    @Param({"off", "etag", "cache"})
+    String mode;
+
+    JpashopContext context;
+    HttpClient client;
+    HttpRequest request;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Bytes {
+        public long bytes; // 받은 응답 body 크기 합계
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = JpashopContext.startServer("--jpashop.http-cache.enabled=" + !mode.equals("off"),
+                "--jpashop.http-cache.response-cache.enabled=" + mode.equals("cache"));
+        new BenchDataGenerator(context).generate(100, 10, 3, 50);
+
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+        URI uri = URI.create("http://localhost:" + context.port() + "/api/v5/orders");
+        request = HttpRequest.newBuilder(uri).GET().build();
+        if (mode.equals("etag")) {
+            String etag = client.send(request, HttpResponse.BodyHandlers.discarding()).headers().firstValue("ETag").orElseThrow();
+            request = HttpRequest.newBuilder(uri).header("If-None-Match", etag).GET().build();
+        }
+    }
+
+    @Benchmark
+    public int get(SqlCounters counters, Bytes bytes) throws Exception {
+        counters.call(context);
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        bytes.bytes += response.body().length;
+        return response.statusCode();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+}
@@ -0,0 +1,96 @@
+package jpabook.jpashop.bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 고정 힙(-Xmx256m)에서 동시 요청 수에 따른 처리량: 플랫폼 스레드(톰캣 기본 200) vs 가상 스레드(virtual 프로필)
+ * 1 op = concurrency 개 요청을 동시에 보내고 모두 응답받을 때까지 (/api/v3.2/orders, DB 조회 포함)
+ * mode=virtual 은 JDK 21 이상에서만 실행 가능 (VirtualThreadConfig), fork JVM 은 -PjmhJvm 으로 지정 (jpashop-bench/build.gradle)
+ * 실패한 요청(200 이 아니거나 연결 실패) 수는 burst:failures, 최대 스레드 수/힙 사용량은 끝날 때 출력
+ *
+ * ./gradlew :jpashop-bench:jmh -Pinclude=VirtualThreadLoad
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = {"-Xms256m", "-Xmx256m"})
+public class VirtualThreadLoadBenchmark {
+
+    @Param({"platform", "virtual"})
+    String mode;
+
+    @Param({"200", "1000", "4000"})
+    int concurrency;
+
+    JpashopContext context;
+    HttpClient client;
+    HttpRequest request;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Failures {
+        public long failures;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            failures = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = mode.equals("virtual")
+                ? JpashopContext.startServer("--spring.profiles.active=virtual")
+                : JpashopContext.startServer();
+        new BenchDataGenerator(context).generate(100, 10, 3, 50);
+
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + context.port() + "/api/v3.2/orders?limit=20"))
+                .GET()
+                .build();
+    }
+
+    @Benchmark
+    public int burst(Failures counters) {
+        AtomicInteger failures = new AtomicInteger();
+        CompletableFuture<?>[] responses = new CompletableFuture<?>[concurrency];
+        for (int i = 0; i < concurrency; i++) {
+            responses[i] = client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .thenAccept(response -> {
+                        if (response.statusCode() != 200) {
+                            failures.incrementAndGet();
+                        }
+                    })
+                    .exceptionally(e -> {
+                        failures.incrementAndGet();
+                        return null;
+                    });
+        }
+        CompletableFuture.allOf(responses).join();
+        counters.failures += failures.get();
+        return responses.length;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Runtime runtime = Runtime.getRuntime();
+        System.out.printf("%n[load] mode=%s concurrency=%d peakThreads=%d heapUsedMb=%d%n",
+                mode, concurrency,
+                ManagementFactory.getThreadMXBean().getPeakThreadCount(),
+                (runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024));
+        context.close();
+    }
+}
@@ -2,6 +2,7 @@ package jpabook.jpashop;
 
 import jpabook.jpashop.domain.*;
 import jpabook.jpashop.domain.item.Book;
+import jpabook.jpashop.repository.MemberRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
@@ -27,8 +28,13 @@ public class InitDB {
     static class InitService {
 
         private final EntityManager em;
+        private final MemberRepository memberRepository;
 
+        // 회원 이름은 unique: 이미 들어 있으면 (파일 DB 로 재시작, 같은 DB 를 쓰는 다른 테스트 컨텍스트) 건너뜀
         public void dbInit1() {
+            if (exists("userA")) {
+                return;
+            }
             Member member = createMember("userA", "서울", "1", "1111");
             em.persist(member);
 
@@ -45,9 +51,13 @@ public class InitDB {
             delivery.setAddress(member.getAddress());
             Order order = Order.createOrder(member, delivery, orderItem1, orderItem2);
             em.persist(order);
+            memberRepository.addOrderSummary(member.getId(), 1, order.getTotalPrice(), order.getOrderDate());
         }
 
         public void dbInit2() {
+            if (exists("userB")) {
+                return;
+            }
             Member member = createMember("userB", "춘천", "3", "1231");
             em.persist(member);
 
@@ -64,6 +74,15 @@ public class InitDB {
             delivery.setAddress(member.getAddress());
             Order order = Order.createOrder(member, delivery, orderItem1, orderItem2);
             em.persist(order);
+            memberRepository.addOrderSummary(member.getId(), 1, order.getTotalPrice(), order.getOrderDate());
+        }
+
+        private boolean exists(String memberName) {
+            return !em.createQuery("select m.id from Member m where m.name = :name", Long.class)
+                    .setParameter("name", memberName)
+                    .setMaxResults(1)
+                    .getResultList()
+                    .isEmpty();
         }
 
         private Book createBook(String name, int price, int stockQuantity) {
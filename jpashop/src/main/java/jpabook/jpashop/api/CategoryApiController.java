@@ -0,0 +1,95 @@
+package jpabook.jpashop.api;
+
+import jpabook.jpashop.domain.item.Item;
+import jpabook.jpashop.service.CategoryService;
+import jpabook.jpashop.service.CategoryTree;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+
+@RestController
+@RequiredArgsConstructor
+public class CategoryApiController {
+
+    private final CategoryService categoryService;
+
+    // 카테고리 메뉴 (메모리 스냅샷에서 조회, SQL 없음)
+    @GetMapping("/api/categories")
+    public List<CategoryDTO> categories() {
+        CategoryTree tree = categoryService.getTree();
+        return tree.getRoots().stream()
+                .map(node -> new CategoryDTO(tree, node))
+                .collect(toList());
+    }
+
+    // 하위 카테고리까지 포함한 상품 목록 (closure 테이블 조인 1번)
+    @GetMapping("/api/categories/{id}/items")
+    public List<CategoryItemDTO> categoryItems(@PathVariable("id") Long id) {
+        return categoryService.findItemsInSubtree(id).stream()
+                .map(CategoryItemDTO::new)
+                .collect(toList());
+    }
+
+    @PostMapping("/api/categories")
+    public CreateCategoryResponse createCategory(@RequestBody CreateCategoryRequest request) {
+        Long id = categoryService.createCategory(request.getName(), request.getParentId());
+        return new CreateCategoryResponse(id);
+    }
+
+    @PutMapping("/api/categories/{id}/parent")
+    public void moveCategory(@PathVariable("id") Long id, @RequestBody MoveCategoryRequest request) {
+        categoryService.moveCategory(id, request.getParentId());
+    }
+
+    @Data
+    static class CategoryDTO {
+
+        private Long id;
+        private String name;
+        private List<CategoryDTO> children;
+
+        public CategoryDTO(CategoryTree tree, CategoryTree.Node node) {
+            this.id = node.getId();
+            this.name = node.getName();
+            this.children = tree.getChildren(node.getId()).stream()
+                    .map(child -> new CategoryDTO(tree, child))
+                    .collect(toList());
+        }
+    }
+
+    @Data
+    static class CategoryItemDTO {
+
+        private Long itemId;
+        private String name;
+        private int price;
+
+        public CategoryItemDTO(Item item) {
+            this.itemId = item.getId();
+            this.name = item.getName();
+            this.price = item.getPrice();
+        }
+    }
+
+    @Data
+    static class CreateCategoryRequest {
+        private String name;
+        private Long parentId;
+    }
+
+    @Data
+    @AllArgsConstructor
+    static class CreateCategoryResponse {
+        private Long id;
+    }
+
+    @Data
+    static class MoveCategoryRequest {
+        private Long parentId;
+    }
+}
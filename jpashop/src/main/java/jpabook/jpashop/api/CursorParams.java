@@ -0,0 +1,33 @@
+package jpabook.jpashop.api;
+
+import jpabook.jpashop.repository.OrderCursor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * 커서 페이징 요청 파라미터 검사 (잘못된 limit, 커서는 500 대신 400)
+ * limit 0 은 하이버네이트 setMaxResults 에서 "제한 없음"이므로 1 이상만 허용
+ */
+final class CursorParams {
+
+    private CursorParams() {
+    }
+
+    static void checkLimit(int limit, int max) {
+        if (limit < 1 || limit > max) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit 은 1 ~ " + max + " 이어야 합니다.");
+        }
+    }
+
+    // 커서가 없으면 null (첫 페이지)
+    static OrderCursor decodeCursor(String cursor) {
+        if (cursor == null) {
+            return null;
+        }
+        try {
+            return OrderCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+}
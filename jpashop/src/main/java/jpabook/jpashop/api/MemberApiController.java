@@ -1,11 +1,17 @@
 package jpabook.jpashop.api;
 
 import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.domain.MemberOrderSummary;
+import jpabook.jpashop.repository.OrderCursor;
+import jpabook.jpashop.repository.order.history.OrderHistoryDTO;
+import jpabook.jpashop.repository.order.history.OrderHistoryRepository;
 import jpabook.jpashop.service.MemberService;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 import javax.validation.Valid;
 import java.util.List;
@@ -15,13 +21,17 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class MemberApiController {
 
+    private static final int MAX_ORDER_HISTORY_LIMIT = 100;
+
     private final MemberService memberService;
+    private final OrderHistoryRepository orderHistoryRepository;
 
     @GetMapping("api/v1/members")
     public List<Member> membersV1(){
         return memberService.findMembers();
     }
 
+    @VersionedResource(Member.class)
     @GetMapping("api/v2/members")
     public Result memberV2() {
         List<Member> findMembers = memberService.findMembers();
@@ -93,5 +103,43 @@ public class MemberApiController {
         private String name;
     }
 
+    // 회원 주문 이력 (최근 주문부터 커서 페이징) + 주문 요약, Member.orders 는 읽지 않음
+    @GetMapping("/api/v1/members/{id}/orders")
+    public OrderHistoryResponse orderHistory(@PathVariable("id") Long id,
+                                             @RequestParam(value = "cursor", required = false) String cursor,
+                                             @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        CursorParams.checkLimit(limit, MAX_ORDER_HISTORY_LIMIT);
+        OrderCursor before = CursorParams.decodeCursor(cursor);
+        Member member = memberService.findOne(id);
+        if (member == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "회원이 없습니다.");
+        }
+
+        List<OrderHistoryDTO> orders = orderHistoryRepository.findByMemberBefore(id, before, limit);
+        OrderHistoryDTO last = orders.isEmpty() ? null : orders.get(orders.size() - 1);
+        String next = orders.size() < limit ? null : new OrderCursor(last.getOrderDate(), last.getOrderId()).encode();
+
+        return new OrderHistoryResponse(member.getOrderSummary(), orders, next);
+    }
+
+    @Data
+    @AllArgsConstructor
+    static class OrderHistoryResponse {
+        private MemberOrderSummary summary;
+        private List<OrderHistoryDTO> orders;
+        private String next; // 다음 페이지 커서 (마지막 페이지면 null)
+    }
+
+    @PostMapping("/api/v1/members/name-index/rebuild")
+    public RebuildNameIndexResponse rebuildNameIndex() {
+        return new RebuildNameIndexResponse(memberService.rebuildNameIndex());
+    }
+
+    @Data
+    @AllArgsConstructor
+    static class RebuildNameIndexResponse {
+        private int indexed;
+    }
+
 
 }
@@ -1,21 +1,42 @@
 package jpabook.jpashop.api;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Delivery;
+import jpabook.jpashop.domain.Member;
 import jpabook.jpashop.domain.Order;
 import jpabook.jpashop.domain.OrderItem;
 import jpabook.jpashop.domain.OrderStatus;
+import jpabook.jpashop.domain.item.Item;
+import jpabook.jpashop.exception.OrderCancelConflictException;
+import jpabook.jpashop.repository.OrderCursor;
 import jpabook.jpashop.repository.OrderRepository;
 import jpabook.jpashop.repository.OrderSearch;
+import jpabook.jpashop.repository.order.query.OrderFlatAssembler;
 import jpabook.jpashop.repository.order.query.OrderFlatDTO;
-import jpabook.jpashop.repository.order.query.OrderItemQueryDTO;
 import jpabook.jpashop.repository.order.query.OrderQueryDTO;
 import jpabook.jpashop.repository.order.query.OrderQueryRepository;
+import jpabook.jpashop.service.OrderRequest;
+import jpabook.jpashop.service.OrderService;
+import jpabook.jpashop.service.OrderTotalPriceReconciler;
+import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -25,9 +46,13 @@ import static java.util.stream.Collectors.*;
 @RestController
 @RequiredArgsConstructor
 public class OrderApiController {
-    
+
+    private static final int MAX_CURSOR_LIMIT = 1000;
+
     private final OrderRepository orderRepository;
     private final OrderQueryRepository orderQueryRepository;
+    private final OrderService orderService;
+    private final ObjectMapper objectMapper;
     
     @GetMapping("/api/v1/orders")
     public List<Order> ordersV1() {
@@ -67,11 +92,28 @@ public class OrderApiController {
                 .collect(toList());
     }
 
+    // v3.1 의 offset 대신 커서로 다음 페이지 조회 (뒤 페이지로 갈수록 느려지지 않음)
+    @GetMapping("/api/v3.2/orders")
+    public CursorResult<List<OrderDTO>> orderV3_cursor(@RequestParam(value = "cursor", required = false) String cursor,
+                                                       @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        CursorParams.checkLimit(limit, MAX_CURSOR_LIMIT);
+        OrderCursor after = CursorParams.decodeCursor(cursor);
+        List<Order> orders = orderRepository.findAllWithMemberDeliveryAfter(after, limit);
+
+        String next = orders.isEmpty() || orders.size() < limit ? null : OrderCursor.of(orders.get(orders.size() - 1)).encode();
+        List<OrderDTO> collect = orders.stream()
+                .map(OrderDTO::new)
+                .collect(toList());
+
+        return new CursorResult<>(collect, next);
+    }
+
     @GetMapping("/api/v4/orders")
     public List<OrderQueryDTO> orderV4() {
         return orderQueryRepository.findOrderQueryDTO();
     }
 
+    @VersionedResource({Order.class, Member.class, Delivery.class, OrderItem.class, Item.class})
     @GetMapping("/api/v5/orders")
     public List<OrderQueryDTO> orderV5() {
         return orderQueryRepository.findAllByDTO_optimization();
@@ -80,14 +122,97 @@ public class OrderApiController {
     @GetMapping("/api/v6/orders")
     public List<OrderQueryDTO> orderV6() {
         List<OrderFlatDTO> flats = orderQueryRepository.findAllByDTO_flat();
+        return OrderFlatAssembler.assemble(flats);
+    }
 
-        return flats.stream()
-                .collect(groupingBy(o -> new OrderQueryDTO(o.getOrderId(), o.getName(), o.getOrderDate(), o.getOrderStatus(), o.getAddress()),
-                        mapping(o -> new OrderItemQueryDTO(o.getOrderId(), o.getItemName(), o.getOrderPrice(), o.getCount()), toList())))
-                .entrySet()
-                .stream()
-                .map(e -> new OrderQueryDTO(e.getKey().getOrderId(), e.getKey().getName(), e.getKey().getOrderDate(), e.getKey().getOrderStatus(), e.getKey().getAddress(), e.getValue()))
-                .collect(toList());
+    // v6 과 같은 JSON 을 DTO 없이: JDBC row 를 읽으면서 OrderJsonWriter 로 응답에 바로 씀 (주문 수와 상관없이 메모리 일정)
+    @GetMapping(value = "/api/v7/orders", produces = MediaType.APPLICATION_JSON_VALUE)
+    public void orderV7(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            writeOrders(OrderJsonWriter.array(generator));
+        }
+    }
+
+    // v7 을 NDJSON 으로: 주문 하나가 완성될 때마다 한 줄씩 바로 내려보냄
+    @GetMapping(value = "/api/orders/export", produces = "application/x-ndjson")
+    public void exportOrders(HttpServletResponse response) throws IOException {
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            writeOrders(OrderJsonWriter.lines(generator));
+        }
+    }
+
+    private void writeOrders(OrderJsonWriter writer) throws IOException {
+        orderQueryRepository.streamAllFlatRows(rs -> {
+            try {
+                writer.write(rs);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.finish();
+    }
+
+    // 여러 주문(주문당 여러 상품)을 한 번에 생성, 잘못된 요청(빈 주문, 수량 0 이하, 없는 회원/상품)은 400
+    @PostMapping("/api/v1/orders")
+    public CreateOrdersResponse placeOrders(@RequestBody List<OrderRequest> requests) {
+        try {
+            List<Long> orderIds = orderService.placeOrders(requests);
+            return new CreateOrdersResponse(orderIds);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
+    // 주문 일괄 취소: orderIds 또는 itemId(그 상품을 주문한 주문 전체) 중 하나
+    @PostMapping("/api/v1/orders/cancel")
+    public CancelOrdersResponse cancelOrders(@RequestBody CancelOrdersRequest request) {
+        if ((request.getOrderIds() == null) == (request.getItemId() == null)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "orderIds, itemId 중 하나만 지정해야 합니다.");
+        }
+        int canceled = request.getItemId() != null
+                ? orderService.cancelOrdersByItem(request.getItemId())
+                : orderService.cancelOrders(request.getOrderIds());
+        return new CancelOrdersResponse(canceled);
+    }
+
+    // 일괄 취소 도중 다른 요청이 먼저 취소/배송완료 -> 전체 롤백 후 409 (다시 요청하면 그 주문은 건너뜀)
+    @ExceptionHandler(OrderCancelConflictException.class)
+    public ResponseEntity<String> orderCancelConflict(OrderCancelConflictException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+    }
+
+    // 주문 총액 컬럼 검증 (fix=true 면 수정까지)
+    @PostMapping("/api/v1/orders/total-price/reconcile")
+    public OrderTotalPriceReconciler.Result reconcileTotalPrice(@RequestParam(defaultValue = "false") boolean fix) {
+        return orderService.reconcileTotalPrice(fix);
+    }
+
+    @Data
+    @AllArgsConstructor
+    static class CreateOrdersResponse {
+        private List<Long> orderIds;
+    }
+
+    @Data
+    static class CancelOrdersRequest {
+        private List<Long> orderIds;
+        private Long itemId;
+    }
+
+    @Data
+    @AllArgsConstructor
+    static class CancelOrdersResponse {
+        private int canceled;
+    }
+
+    @Data
+    @AllArgsConstructor
+    static class CursorResult<T> {
+        private T data;
+        private String next; // 다음 페이지 커서 (마지막 페이지면 null)
     }
 
     @Data
@@ -98,6 +223,7 @@ public class OrderApiController {
         private LocalDateTime orderDate;
         private OrderStatus orderStatus;
         private Address address;
+        private int totalPrice;
         private List<OrderItemDTO> orderItems;
 
         public OrderDTO(Order o) {
@@ -106,6 +232,7 @@ public class OrderApiController {
             this.orderDate = o.getOrderDate();
             this.orderStatus = o.getStatus();
             this.address = o.getDelivery().getAddress();
+            this.totalPrice = o.getTotalPrice();
             orderItems = o.getOrderItems().stream()
                     .map(OrderItemDTO::new)
                     .collect(toList());;
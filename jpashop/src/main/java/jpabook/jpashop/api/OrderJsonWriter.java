@@ -0,0 +1,179 @@
+package jpabook.jpashop.api;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.repository.order.query.OrderFlatDTO;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * order id 순으로 정렬된 flat row -> 주문 트리 JSON (OrderQueryDTO 를 Jackson 으로 직렬화한 것과 같은 모양) 을 바로 씀
+ * OrderQueryDTO/OrderItemQueryDTO 를 만들어 리플렉션으로 다시 읽는 대신 row 값을 generator 에 그대로 씀 (OrderFlatAssembler 와 같은 방식으로 id 가 바뀔 때 주문 하나를 닫음)
+ * - 필드 이름은 SerializedString 으로 미리 인코딩 (row 마다 이름 문자열 escape/UTF-8 변환 안 함)
+ * - OrderFlatDTO 또는 JDBC ResultSet(OrderQueryRepository.FLAT_ROW_SQL 컬럼 순서)에서 읽음
+ * - array: [주문, 주문, ...] / lines: 주문마다 한 줄 (NDJSON)
+ */
+public class OrderJsonWriter {
+
+    private static final SerializedString ORDER_ID = new SerializedString("orderId");
+    private static final SerializedString NAME = new SerializedString("name");
+    private static final SerializedString ORDER_DATE = new SerializedString("orderDate");
+    private static final SerializedString ORDER_STATUS = new SerializedString("orderStatus");
+    private static final SerializedString ADDRESS = new SerializedString("address");
+    private static final SerializedString CITY = new SerializedString("city");
+    private static final SerializedString STREET = new SerializedString("street");
+    private static final SerializedString ZIPCODE = new SerializedString("zipcode");
+    private static final SerializedString TOTAL_PRICE = new SerializedString("totalPrice");
+    private static final SerializedString ORDER_ITEMS = new SerializedString("orderItems");
+    private static final SerializedString ITEM_NAME = new SerializedString("itemName");
+    private static final SerializedString ORDER_PRICE = new SerializedString("orderPrice");
+    private static final SerializedString COUNT = new SerializedString("count");
+
+    private final JsonGenerator generator;
+    private final boolean lines;
+
+    private final StringBuilder date = new StringBuilder(32); // orderDate 포맷 버퍼 (String 을 만들지 않고 char[] 로 씀)
+    private char[] dateChars = new char[32];
+
+    private boolean inOrder;
+    private long currentId;
+
+    private OrderJsonWriter(JsonGenerator generator, boolean lines) {
+        this.generator = generator;
+        this.lines = lines;
+    }
+
+    public static OrderJsonWriter array(JsonGenerator generator) throws IOException {
+        generator.writeStartArray();
+        return new OrderJsonWriter(generator, false);
+    }
+
+    public static OrderJsonWriter lines(JsonGenerator generator) {
+        generator.setRootValueSeparator(null); // 기본 구분자(공백)가 두 번째 줄부터 앞에 붙지 않도록, 줄 구분은 '\n' 만
+        return new OrderJsonWriter(generator, true);
+    }
+
+    public void write(OrderFlatDTO f) throws IOException {
+        if (startOrder(f.getOrderId())) {
+            Address address = f.getAddress();
+            writeOrder(f.getName(), f.getOrderDate(), f.getOrderStatus() == null ? null : f.getOrderStatus().name(),
+                    address != null, address == null ? null : address.getCity(), address == null ? null : address.getStreet(),
+                    address == null ? null : address.getZipcode(), f.getTotalPrice());
+        }
+        writeOrderItem(f.getItemName(), f.getOrderPrice(), f.getCount());
+    }
+
+    /**
+     * OrderQueryRepository.FLAT_ROW_SQL 의 현재 row
+     * address 는 세 컬럼이 모두 null 이면 null (하이버네이트 embeddable 과 같음)
+     */
+    public void write(ResultSet rs) throws SQLException, IOException {
+        if (startOrder(rs.getLong(1))) {
+            String city = rs.getString(5);
+            String street = rs.getString(6);
+            String zipcode = rs.getString(7);
+            writeOrder(rs.getString(2), rs.getObject(3, LocalDateTime.class), rs.getString(4),
+                    city != null || street != null || zipcode != null, city, street, zipcode, rs.getInt(8));
+        }
+        writeOrderItem(rs.getString(9), rs.getInt(10), rs.getInt(11));
+    }
+
+    /**
+     * 마지막 주문(과 배열)을 닫고 flush (generator 는 닫지 않음)
+     */
+    public void finish() throws IOException {
+        endOrder();
+        if (!lines) {
+            generator.writeEndArray();
+        }
+        generator.flush();
+    }
+
+    // 새 주문이면 이전 주문을 닫고 true
+    private boolean startOrder(long orderId) throws IOException {
+        if (inOrder && orderId == currentId) {
+            return false;
+        }
+        endOrder();
+        inOrder = true;
+        currentId = orderId;
+        return true;
+    }
+
+    private void endOrder() throws IOException {
+        if (!inOrder) {
+            return;
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+        if (lines) {
+            generator.writeRaw('\n');
+        }
+        inOrder = false;
+    }
+
+    private void writeOrder(String name, LocalDateTime orderDate, String orderStatus,
+                            boolean hasAddress, String city, String street, String zipcode, int totalPrice) throws IOException {
+        JsonGenerator g = generator;
+        g.writeStartObject();
+        g.writeFieldName(ORDER_ID);
+        g.writeNumber(currentId);
+        g.writeFieldName(NAME);
+        g.writeString(name);
+        g.writeFieldName(ORDER_DATE);
+        writeDate(orderDate);
+        g.writeFieldName(ORDER_STATUS);
+        g.writeString(orderStatus);
+        g.writeFieldName(ADDRESS);
+        if (hasAddress) {
+            g.writeStartObject();
+            g.writeFieldName(CITY);
+            g.writeString(city);
+            g.writeFieldName(STREET);
+            g.writeString(street);
+            g.writeFieldName(ZIPCODE);
+            g.writeString(zipcode);
+            g.writeEndObject();
+        } else {
+            g.writeNull();
+        }
+        g.writeFieldName(TOTAL_PRICE);
+        g.writeNumber(totalPrice);
+        g.writeFieldName(ORDER_ITEMS);
+        g.writeStartArray();
+    }
+
+    private void writeOrderItem(String itemName, int orderPrice, int count) throws IOException {
+        JsonGenerator g = generator;
+        g.writeStartObject();
+        g.writeFieldName(ORDER_ID);
+        g.writeNumber(currentId);
+        g.writeFieldName(ITEM_NAME);
+        g.writeString(itemName);
+        g.writeFieldName(ORDER_PRICE);
+        g.writeNumber(orderPrice);
+        g.writeFieldName(COUNT);
+        g.writeNumber(count);
+        g.writeEndObject();
+    }
+
+    // jackson-datatype-jsr310 기본 포맷 (ISO_LOCAL_DATE_TIME)
+    private void writeDate(LocalDateTime orderDate) throws IOException {
+        if (orderDate == null) {
+            generator.writeNull();
+            return;
+        }
+        date.setLength(0);
+        DateTimeFormatter.ISO_LOCAL_DATE_TIME.formatTo(orderDate, date);
+        if (dateChars.length < date.length()) {
+            dateChars = new char[date.length()];
+        }
+        date.getChars(0, date.length(), dateChars, 0);
+        generator.writeString(dateChars, 0, date.length());
+    }
+}
@@ -1,6 +1,8 @@
 package jpabook.jpashop.api;
 
 import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Delivery;
+import jpabook.jpashop.domain.Member;
 import jpabook.jpashop.domain.Order;
 import jpabook.jpashop.domain.OrderStatus;
 import jpabook.jpashop.repository.OrderRepository;
@@ -52,6 +54,7 @@ public class OrderSimpleApiController {
                 .collect(Collectors.toList());
     }
 
+    @VersionedResource({Order.class, Member.class, Delivery.class})
     @GetMapping("/api/v4/simple-orders")
     public List<OrderSimpleQueryDTO> ordersV4() {
         return orderSimpleQueryRepository.findOrderDTOS();
@@ -64,6 +67,7 @@ public class OrderSimpleApiController {
         private LocalDateTime orderDate;
         private OrderStatus orderStatus;
         private Address address;
+        private int totalPrice; // 컬럼 값 (orderItems 를 읽지 않음)
 
         public SimpleOrderDTO(Order order) {
             orderId = order.getId();
@@ -71,6 +75,7 @@ public class OrderSimpleApiController {
             orderDate = order.getOrderDate();
             orderStatus = order.getStatus();
             address = order.getDelivery().getAddress();
+            totalPrice = order.getTotalPrice();
         }
     }
 }
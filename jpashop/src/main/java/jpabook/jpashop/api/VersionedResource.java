@@ -0,0 +1,20 @@
+package jpabook.jpashop.api;
+
+import java.lang.annotation.*;
+
+/**
+ * 응답이 value 엔티티(테이블)로만 만들어지는 조회 API
+ * - 응답마다 TableVersionRegistry 버전으로 만든 강한 ETag, If-None-Match 가 같으면 컨트롤러를 실행하지 않고 304 (VersionedResourceInterceptor)
+ * - jpashop.http-cache.response-cache.enabled 이면 직렬화한 JSON 을 같은 버전으로 저장해 두고 그대로 응답 (VersionedResponseCache)
+ * 응답에 쓰는 엔티티를 빠뜨리면 그 엔티티가 바뀌어도 예전 응답이 나감
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface VersionedResource {
+
+    /**
+     * 응답을 만드는 데 쓰는 엔티티 (상속 루트, 예: Book 이 아니라 Item)
+     */
+    Class<?>[] value();
+}
@@ -0,0 +1,76 @@
+package jpabook.jpashop.api;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jpabook.jpashop.repository.TableVersionRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * @VersionedResource 조회 API 의 ETag / 304 / 응답 캐시
+ * 컨트롤러 실행 전에 테이블 버전만으로 판단하므로 304 와 응답 캐시 hit 는 SQL 을 실행하지 않음
+ * replica 를 쓰면 복제 지연 동안 읽은 예전 데이터가 새 버전의 ETag 로 나갈 수 있어서 사용 안 함
+ */
+@Component
+public class VersionedResourceInterceptor implements HandlerInterceptor {
+
+    // 응답 캐시에 저장할 때 쓸 ETag (컨트롤러 실행 전 버전)
+    static final String ETAG_ATTRIBUTE = VersionedResourceInterceptor.class.getName() + ".etag";
+
+    private final TableVersionRegistry tableVersions;
+    private final VersionedResponseCache responseCache;
+    private final boolean enabled;
+
+    private final Counter notModified;
+    private final Counter hit;
+    private final Counter miss;
+
+    public VersionedResourceInterceptor(TableVersionRegistry tableVersions, VersionedResponseCache responseCache, MeterRegistry registry,
+                                        @Value("${jpashop.http-cache.enabled:true}") boolean enabled,
+                                        @Value("${jpashop.replica.enabled:false}") boolean replica) {
+        this.tableVersions = tableVersions;
+        this.responseCache = responseCache;
+        this.enabled = enabled && !replica;
+        this.notModified = requests(registry, "not_modified");
+        this.hit = requests(registry, "hit");
+        this.miss = requests(registry, "miss");
+    }
+
+    private static Counter requests(MeterRegistry registry, String result) {
+        return Counter.builder("jpashop.http.cache.requests")
+                .description("@VersionedResource 요청 (not_modified: 304, hit: 응답 캐시, miss: 컨트롤러 실행)")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        if (!enabled || !(handler instanceof HandlerMethod)) {
+            return true;
+        }
+        VersionedResource resource = ((HandlerMethod) handler).getMethodAnnotation(VersionedResource.class);
+        if (resource == null) {
+            return true;
+        }
+
+        // 304 여부와 상관없이 ETag 헤더도 씀
+        String etag = tableVersions.etag(resource.value());
+        if (new ServletWebRequest(request, response).checkNotModified(etag)) {
+            notModified.increment();
+            return false;
+        }
+        if (responseCache.write(request, response, etag)) {
+            hit.increment();
+            return false;
+        }
+        miss.increment();
+        request.setAttribute(ETAG_ATTRIBUTE, etag);
+        return true;
+    }
+}
@@ -0,0 +1,112 @@
+package jpabook.jpashop.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * @VersionedResource 응답을 직렬화한 JSON 그대로 메모리에 저장 (키: 요청 URI + query string, 값: ETag + JSON)
+ * 저장된 ETag 가 지금 테이블 버전과 같으면 VersionedResourceInterceptor 가 컨트롤러 대신 그대로 씀 (SQL, 직렬화 없음)
+ * 버전이 바뀐 항목은 다음 요청이 새로 만든 응답으로 덮어씀, 전체 크기는 max-size (JSON 바이트 수) 까지
+ * miss 일 때는 Jackson 컨버터 대신 여기서 한 번 직렬화해서 저장하고 같은 바이트를 응답으로 씀
+ */
+@RestControllerAdvice
+public class VersionedResponseCache implements ResponseBodyAdvice<Object> {
+
+    private final ObjectMapper objectMapper;
+    private final Cache<String, Entry> cache; // null: 사용 안 함
+
+    public VersionedResponseCache(ObjectMapper objectMapper, MeterRegistry registry,
+                                  @Value("${jpashop.http-cache.response-cache.enabled:false}") boolean enabled,
+                                  @Value("${jpashop.http-cache.response-cache.max-size:16MB}") DataSize maxSize) {
+        this.objectMapper = objectMapper;
+        this.cache = !enabled ? null : Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .<String, Entry>weigher((key, entry) -> entry.json.length)
+                .build();
+        Gauge.builder("jpashop.http.cache.size", this, c -> c.cache == null ? 0
+                        : c.cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L))
+                .description("응답 캐시에 저장된 JSON 크기")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    /**
+     * 저장된 응답이 etag 버전이면 response 에 쓰고 true
+     */
+    boolean write(HttpServletRequest request, HttpServletResponse response, String etag) throws IOException {
+        if (cache == null) {
+            return false;
+        }
+        Entry entry = cache.getIfPresent(key(request));
+        if (entry == null || !entry.etag.equals(etag)) {
+            return false;
+        }
+        response.setContentType(entry.contentType);
+        response.setContentLength(entry.json.length);
+        response.getOutputStream().write(entry.json);
+        return true;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return cache != null && returnType.hasMethodAnnotation(VersionedResource.class)
+                && MappingJackson2HttpMessageConverter.class.isAssignableFrom(converterType);
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        HttpServletRequest servletRequest = ((ServletServerHttpRequest) request).getServletRequest();
+        String etag = (String) servletRequest.getAttribute(VersionedResourceInterceptor.ETAG_ATTRIBUTE);
+        if (body == null || etag == null) {
+            return body;
+        }
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            cache.put(key(servletRequest), new Entry(etag, selectedContentType.toString(), json));
+            response.getHeaders().setContentType(selectedContentType);
+            response.getHeaders().setContentLength(json.length);
+            response.getBody().write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return null; // 이미 썼으므로 컨버터는 실행 안 함
+    }
+
+    private static String key(HttpServletRequest request) {
+        String query = request.getQueryString();
+        return query == null ? request.getRequestURI() : request.getRequestURI() + '?' + query;
+    }
+
+    private static final class Entry {
+        final String etag;
+        final String contentType;
+        final byte[] json;
+
+        Entry(String etag, String contentType, byte[] json) {
+            this.etag = etag;
+            this.contentType = contentType;
+            this.json = json;
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package jpabook.jpashop.bulk;
+
+public enum BulkLoadMode {
+    JPA, // em.persist -> chunk 마다 flush/clear (hibernate jdbc batch, 엔티티 리스너 적용)
+    JDBC // JdbcTemplate.batchUpdate (영속성 컨텍스트, 엔티티 리스너, 2차 캐시를 거치지 않음)
+}
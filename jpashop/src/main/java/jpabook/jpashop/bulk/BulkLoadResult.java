@@ -0,0 +1,25 @@
+package jpabook.jpashop.bulk;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public class BulkLoadResult {
+
+    private final String target; // books, members
+    private final BulkLoadMode mode;
+    private final long records; // 입력 행 수
+    private final long rows; // insert 한 row 수 (회원 + 주문 + 배송 + 주문상품)
+    private final long elapsedMillis;
+
+    public double rowsPerSecond() {
+        return elapsedMillis == 0 ? rows * 1000.0 : rows * 1000.0 / elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s(%s) records=%d rows=%d %dms %.0f rows/s",
+                target, mode, records, rows, elapsedMillis, rowsPerSecond());
+    }
+}
@@ -0,0 +1,259 @@
+package jpabook.jpashop.bulk;
+
+import jpabook.jpashop.bulk.BulkRows.BookRow;
+import jpabook.jpashop.bulk.BulkRows.MemberRow;
+import jpabook.jpashop.bulk.BulkRows.OrderLineRow;
+import jpabook.jpashop.bulk.BulkRows.OrderRow;
+import jpabook.jpashop.config.HibernateCacheConfig;
+import jpabook.jpashop.domain.*;
+import jpabook.jpashop.domain.item.Book;
+import jpabook.jpashop.domain.item.Item;
+import jpabook.jpashop.repository.MemberNameFilter;
+import jpabook.jpashop.repository.MemberNameIndex;
+import jpabook.jpashop.repository.TableVersionRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * 대량 적재 (스테이징 데이터 준비, 벤치마크)
+ * 입력을 chunk-size 행씩 끊어서 트랜잭션 1번에 적재 -> 건수와 상관없이 메모리 일정
+ * - JPA: em.persist 후 chunk 마다 flush/clear (hibernate jdbc batch_size 단위로 전송)
+ * - JDBC: JdbcTemplate.batchUpdate 로 바로 insert, id 는 엔티티 시퀀스에서 pooled-lo 와 같은 방식으로 확보 (하이버네이트 id 와 겹치지 않음)
+ *   영속성 컨텍스트를 거치지 않으므로 회원 이름 색인은 끝나고 다시 읽고, 이름 필터와 테이블 버전은 chunk 커밋마다 반영, 상품 쿼리 캐시는 비움
+ */
+@Slf4j
+@Component
+public class BulkLoader {
+
+    private static final String INSERT_BOOK = "insert into item (dtype, item_id, name, price, stock_quantity, author, isbn) values ('B', ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_MEMBER = "insert into member (member_id, name, city, street, zipcode, order_count, last_order_date, lifetime_spend) values (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_DELIVERY = "insert into delivery (delivery_id, city, street, zipcode, status) values (?, ?, ?, ?, ?)";
+    private static final String INSERT_ORDER = "insert into orders (order_id, order_date, status, total_price, delivery_id, member_id) values (?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_ORDER_ITEM = "insert into order_item (order_item_id, count, order_price, item_id, order_id) values (?, ?, ?, ?, ?)";
+
+    private final EntityManager em;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate tx;
+    private final SessionFactoryImplementor sessionFactory;
+    private final MemberNameIndex memberNameIndex;
+    private final MemberNameFilter memberNameFilter;
+    private final TableVersionRegistry tableVersions;
+    private final int chunkSize;
+    private final int allocationSize;
+
+    public BulkLoader(EntityManager em, JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                      EntityManagerFactory entityManagerFactory, MemberNameIndex memberNameIndex, MemberNameFilter memberNameFilter,
+                      TableVersionRegistry tableVersions,
+                      @Value("${jpashop.bulk.chunk-size:1000}") int chunkSize,
+                      @Value("${jpashop.id.allocation-size:" + PooledSequenceGenerator.DEFAULT_ALLOCATION_SIZE + "}") int allocationSize) {
+        this.em = em;
+        this.jdbcTemplate = jdbcTemplate;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.memberNameIndex = memberNameIndex;
+        this.memberNameFilter = memberNameFilter;
+        this.tableVersions = tableVersions;
+        this.chunkSize = chunkSize;
+        this.allocationSize = allocationSize;
+    }
+
+    public BulkLoadResult loadBooks(Iterator<BookRow> rows, BulkLoadMode mode) {
+        if (mode == BulkLoadMode.JPA) {
+            return load("books", mode, rows, this::persistBooks);
+        }
+        SequenceIds itemIds = new SequenceIds("item_seq");
+        BulkLoadResult result = load("books", mode, rows, chunk -> {
+            tableVersions.bumpAfterCommit(Item.class);
+            return insertBooks(chunk, itemIds);
+        });
+        sessionFactory.getCache().evictQueryRegion(HibernateCacheConfig.ITEM_QUERY_REGION);
+        return result;
+    }
+
+    /**
+     * 회원 + 주문(배송, 주문상품)
+     */
+    public BulkLoadResult loadMembers(Iterator<MemberRow> rows, BulkLoadMode mode) {
+        if (mode == BulkLoadMode.JPA) {
+            return load("members", mode, rows, this::persistMembers);
+        }
+        MemberIds ids = new MemberIds();
+        BulkLoadResult result = load("members", mode, rows, chunk -> {
+            chunk.forEach(row -> memberNameFilter.putAfterCommit(row.getName()));
+            tableVersions.bumpAfterCommit(Member.class, Delivery.class, Order.class, OrderItem.class);
+            return insertMembers(chunk, ids);
+        });
+        memberNameIndex.rebuild();
+        return result;
+    }
+
+    private <T> BulkLoadResult load(String target, BulkLoadMode mode, Iterator<T> rows, ToIntFunction<List<T>> writer) {
+        long start = System.nanoTime();
+        long records = 0;
+        long inserted = 0;
+
+        List<T> chunk = new ArrayList<>(chunkSize);
+        while (rows.hasNext()) {
+            chunk.add(rows.next());
+            if (chunk.size() == chunkSize || !rows.hasNext()) {
+                inserted += tx.execute(status -> writer.applyAsInt(chunk));
+                records += chunk.size();
+                chunk.clear();
+            }
+        }
+
+        BulkLoadResult result = new BulkLoadResult(target, mode, records, inserted, (System.nanoTime() - start) / 1_000_000);
+        log.info("bulk load {}", result);
+        return result;
+    }
+
+    private int persistBooks(List<BookRow> chunk) {
+        for (BookRow row : chunk) {
+            Book book = new Book();
+            book.setName(row.getName());
+            book.setPrice(row.getPrice());
+            book.setStockQuantity(row.getStockQuantity());
+            book.setAuthor(row.getAuthor());
+            book.setIsbn(row.getIsbn());
+            em.persist(book);
+        }
+        em.flush();
+        em.clear();
+        return chunk.size();
+    }
+
+    private int insertBooks(List<BookRow> chunk, SequenceIds itemIds) {
+        List<Object[]> books = new ArrayList<>(chunk.size());
+        for (BookRow row : chunk) {
+            books.add(new Object[]{itemIds.next(), row.getName(), row.getPrice(), row.getStockQuantity(), row.getAuthor(), row.getIsbn()});
+        }
+        jdbcTemplate.batchUpdate(INSERT_BOOK, books);
+        return books.size();
+    }
+
+    private int persistMembers(List<MemberRow> chunk) {
+        int rows = 0;
+        for (MemberRow row : chunk) {
+            Member member = new Member();
+            member.setName(row.getName());
+            member.setAddress(row.getAddress());
+            member.setOrderSummary(orderSummary(row.getOrders())); // 요약 컬럼은 insert 때만 씀 (persist 전에)
+            em.persist(member);
+            rows++;
+
+            for (OrderRow orderRow : row.getOrders()) {
+                OrderItem[] orderItems = new OrderItem[orderRow.getLines().size()];
+                for (int i = 0; i < orderItems.length; i++) {
+                    OrderLineRow line = orderRow.getLines().get(i);
+                    // 상품은 select 없이 프록시로 참조 (재고는 그대로)
+                    orderItems[i] = OrderItem.createReservedOrderItem(em.getReference(Item.class, line.getItemId()), line.getOrderPrice(), line.getCount());
+                }
+                Delivery delivery = new Delivery();
+                delivery.setAddress(member.getAddress());
+                em.persist(Order.createOrder(member, delivery, orderRow.getOrderDate(), orderItems));
+                rows += 2 + orderItems.length;
+            }
+        }
+        em.flush();
+        em.clear();
+        return rows;
+    }
+
+    private static MemberOrderSummary orderSummary(List<OrderRow> orders) {
+        long lifetimeSpend = 0;
+        LocalDateTime lastOrderDate = null;
+        for (OrderRow orderRow : orders) {
+            for (OrderLineRow line : orderRow.getLines()) {
+                lifetimeSpend += line.getOrderPrice() * line.getCount();
+            }
+            if (lastOrderDate == null || orderRow.getOrderDate().isAfter(lastOrderDate)) {
+                lastOrderDate = orderRow.getOrderDate();
+            }
+        }
+        return new MemberOrderSummary(orders.size(), lastOrderDate, lifetimeSpend);
+    }
+
+    private int insertMembers(List<MemberRow> chunk, MemberIds ids) {
+        List<Object[]> members = new ArrayList<>(chunk.size());
+        List<Object[]> deliveries = new ArrayList<>();
+        List<Object[]> orders = new ArrayList<>();
+        List<Object[]> orderItems = new ArrayList<>();
+
+        for (MemberRow row : chunk) {
+            long memberId = ids.member.next();
+            Address address = row.getAddress();
+            long lifetimeSpend = 0; // MemberOrderSummary
+            LocalDateTime lastOrderDate = null;
+
+            for (OrderRow orderRow : row.getOrders()) {
+                long deliveryId = ids.delivery.next();
+                long orderId = ids.order.next();
+                int totalPrice = 0;
+                for (OrderLineRow line : orderRow.getLines()) {
+                    orderItems.add(new Object[]{ids.orderItem.next(), line.getCount(), line.getOrderPrice(), line.getItemId(), orderId});
+                    totalPrice += line.getOrderPrice() * line.getCount();
+                }
+                deliveries.add(new Object[]{deliveryId, address.getCity(), address.getStreet(), address.getZipcode(), null});
+                orders.add(new Object[]{orderId, Timestamp.valueOf(orderRow.getOrderDate()), OrderStatus.ORDER.name(), totalPrice, deliveryId, memberId});
+
+                lifetimeSpend += totalPrice;
+                if (lastOrderDate == null || orderRow.getOrderDate().isAfter(lastOrderDate)) {
+                    lastOrderDate = orderRow.getOrderDate();
+                }
+            }
+            members.add(new Object[]{memberId, row.getName(), address.getCity(), address.getStreet(), address.getZipcode(),
+                    row.getOrders().size(), lastOrderDate == null ? null : Timestamp.valueOf(lastOrderDate), lifetimeSpend});
+        }
+
+        // FK 순서대로
+        jdbcTemplate.batchUpdate(INSERT_MEMBER, members);
+        jdbcTemplate.batchUpdate(INSERT_DELIVERY, deliveries);
+        jdbcTemplate.batchUpdate(INSERT_ORDER, orders);
+        jdbcTemplate.batchUpdate(INSERT_ORDER_ITEM, orderItems);
+        return members.size() + deliveries.size() + orders.size() + orderItems.size();
+    }
+
+    private final class MemberIds {
+        final SequenceIds member = new SequenceIds("member_seq");
+        final SequenceIds delivery = new SequenceIds("delivery_seq");
+        final SequenceIds order = new SequenceIds("order_seq");
+        final SequenceIds orderItem = new SequenceIds("order_item_seq");
+    }
+
+    /**
+     * PooledSequenceGenerator(pooled-lo)와 같은 방식: 시퀀스 값 v 를 받으면 v ~ v + allocationSize - 1 사용
+     * (시퀀스 increment 가 allocationSize 이므로 하이버네이트가 받는 범위와 겹치지 않음)
+     */
+    private final class SequenceIds {
+
+        private final String nextValueSql;
+        private long next;
+        private long end;
+
+        SequenceIds(String sequence) {
+            this.nextValueSql = sessionFactory.getJdbcServices().getDialect().getSequenceNextValString(sequence);
+        }
+
+        long next() {
+            if (next == end) {
+                next = jdbcTemplate.queryForObject(nextValueSql, Long.class);
+                end = next + allocationSize;
+            }
+            return next++;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package jpabook.jpashop.bulk;
+
+import jpabook.jpashop.domain.Address;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 대량 적재(BulkLoader) 입력 행: 엔티티 대신 값만 가짐 (SeedGenerator, CsvRows 가 하나씩 만들어서 넘김)
+ */
+public final class BulkRows {
+
+    private BulkRows() {
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class BookRow {
+        private final String name;
+        private final int price;
+        private final int stockQuantity;
+        private final String author;
+        private final String isbn;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class MemberRow {
+        private final String name;
+        private final Address address;
+        private final List<OrderRow> orders; // 회원과 같은 트랜잭션에 적재 (배송지는 회원 주소)
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class OrderRow {
+        private final LocalDateTime orderDate;
+        private final List<OrderLineRow> lines;
+    }
+
+    /**
+     * 이미 적재된 상품 id 참조, 재고는 차감하지 않음 (OrderItem.createReservedOrderItem 과 같음)
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class OrderLineRow {
+        private final Long itemId;
+        private final int orderPrice;
+        private final int count;
+    }
+}
@@ -0,0 +1,73 @@
+package jpabook.jpashop.bulk;
+
+import jpabook.jpashop.repository.ItemRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Collections;
+
+/**
+ * jpashop.bulk.seed.enabled=true: 시작할 때 스테이징 데이터 적재
+ * 상품(books-csv 또는 books 개 생성) -> 회원(members-csv 또는 members 명 생성, 회원마다 orders-per-member 개 주문)
+ * 생성하는 이름은 name-prefix 로 시작 (기본값은 실행 시각이라 여러 번 실행해도 겹치지 않음)
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "jpashop.bulk.seed", name = "enabled", havingValue = "true")
+public class BulkSeedRunner implements ApplicationRunner {
+
+    private final BulkLoader bulkLoader;
+    private final ItemRepository itemRepository;
+    private final TransactionTemplate readOnlyTx;
+
+    @Value("${jpashop.bulk.seed.mode:jdbc}") private BulkLoadMode mode;
+    @Value("${jpashop.bulk.seed.name-prefix:}") private String namePrefix;
+    @Value("${jpashop.bulk.seed.books:0}") private int books;
+    @Value("${jpashop.bulk.seed.books-csv:}") private String booksCsv;
+    @Value("${jpashop.bulk.seed.members:0}") private int members;
+    @Value("${jpashop.bulk.seed.members-csv:}") private String membersCsv;
+    @Value("${jpashop.bulk.seed.orders-per-member:0}") private int ordersPerMember;
+    @Value("${jpashop.bulk.seed.items-per-order:1}") private int itemsPerOrder;
+
+    public BulkSeedRunner(BulkLoader bulkLoader, ItemRepository itemRepository, PlatformTransactionManager transactionManager) {
+        this.bulkLoader = bulkLoader;
+        this.itemRepository = itemRepository;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        String prefix = namePrefix.isEmpty() ? "seed" + Long.toString(System.currentTimeMillis(), 36) + "-" : namePrefix;
+
+        if (!booksCsv.isEmpty()) {
+            try (BufferedReader reader = Files.newBufferedReader(Paths.get(booksCsv))) {
+                bulkLoader.loadBooks(CsvRows.books(reader), mode);
+            }
+        } else if (books > 0) {
+            bulkLoader.loadBooks(SeedGenerator.books(prefix, books), mode);
+        }
+
+        if (!membersCsv.isEmpty()) {
+            try (BufferedReader reader = Files.newBufferedReader(Paths.get(membersCsv))) {
+                bulkLoader.loadMembers(CsvRows.members(reader), mode);
+            }
+        } else if (members > 0) {
+            SeedGenerator.Catalog catalog = ordersPerMember == 0
+                    ? new SeedGenerator.Catalog(Collections.emptyList())
+                    : readOnlyTx.execute(status -> new SeedGenerator.Catalog(itemRepository.findIdAndPrices()));
+            bulkLoader.loadMembers(SeedGenerator.members(prefix, members, ordersPerMember, itemsPerOrder, catalog), mode);
+        }
+        log.info("bulk seed 완료 (prefix={})", prefix);
+    }
+}
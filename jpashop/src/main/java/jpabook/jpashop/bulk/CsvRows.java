@@ -0,0 +1,79 @@
+package jpabook.jpashop.bulk;
+
+import jpabook.jpashop.bulk.BulkRows.BookRow;
+import jpabook.jpashop.bulk.BulkRows.MemberRow;
+import jpabook.jpashop.domain.Address;
+
+import java.io.BufferedReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * CSV 입력 (첫 줄은 헤더, 빈 줄 무시)
+ * 한 줄씩 읽어서 넘기므로 파일 크기와 상관없이 메모리 일정, reader 는 호출측에서 닫음
+ * 값에 쉼표가 있으면 "..." 로 감싸고 따옴표는 "" (값 안의 줄바꿈은 지원 안 함)
+ */
+public final class CsvRows {
+
+    private CsvRows() {
+    }
+
+    /**
+     * name,city,street,zipcode
+     */
+    public static Iterator<MemberRow> members(BufferedReader reader) {
+        return rows(reader, 4, f -> new MemberRow(f.get(0), new Address(f.get(1), f.get(2), f.get(3)), Collections.emptyList()));
+    }
+
+    /**
+     * name,price,stock_quantity,author,isbn
+     */
+    public static Iterator<BookRow> books(BufferedReader reader) {
+        return rows(reader, 5, f -> new BookRow(f.get(0), Integer.parseInt(f.get(1)), Integer.parseInt(f.get(2)), f.get(3), f.get(4)));
+    }
+
+    private static <T> Iterator<T> rows(BufferedReader reader, int columns, Function<List<String>, T> mapper) {
+        return reader.lines()
+                .skip(1)
+                .filter(line -> !line.isBlank())
+                .map(line -> {
+                    List<String> fields = parse(line);
+                    if (fields.size() != columns) {
+                        throw new IllegalArgumentException("컬럼 수가 " + columns + "개가 아닙니다: " + line);
+                    }
+                    return mapper.apply(fields);
+                })
+                .iterator();
+    }
+
+    static List<String> parse(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString().trim());
+        return fields;
+    }
+}
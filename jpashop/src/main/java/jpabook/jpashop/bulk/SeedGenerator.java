@@ -0,0 +1,78 @@
+package jpabook.jpashop.bulk;
+
+import jpabook.jpashop.bulk.BulkRows.BookRow;
+import jpabook.jpashop.bulk.BulkRows.MemberRow;
+import jpabook.jpashop.bulk.BulkRows.OrderLineRow;
+import jpabook.jpashop.bulk.BulkRows.OrderRow;
+import jpabook.jpashop.domain.Address;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * 스테이징/벤치마크용 데이터 생성
+ * 행을 미리 만들어두지 않고 꺼낼 때 하나씩 생성 (건수와 상관없이 메모리 일정)
+ * 이름은 prefix + 번호 (실행마다 prefix 를 다르게 주면 기존 데이터와 겹치지 않음)
+ */
+public final class SeedGenerator {
+
+    private SeedGenerator() {
+    }
+
+    public static Iterator<BookRow> books(String prefix, int count) {
+        return IntStream.range(0, count)
+                .mapToObj(n -> new BookRow(prefix + "book" + n, 10000 + n % 100 * 100, 1_000_000,
+                        "author" + n % 1000, String.format("isbn-%010d", n)))
+                .iterator();
+    }
+
+    /**
+     * 회원마다 ordersPerMember 개 주문, 주문마다 catalog 상품 itemsPerOrder 개 (회원/주문 번호로 돌아가면서 선택)
+     */
+    public static Iterator<MemberRow> members(String prefix, int count, int ordersPerMember, int itemsPerOrder, Catalog catalog) {
+        if (ordersPerMember > 0 && catalog.size() == 0) {
+            throw new IllegalStateException("주문을 만들 상품이 없습니다.");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        return IntStream.range(0, count)
+                .mapToObj(n -> {
+                    List<OrderRow> orders = new ArrayList<>(ordersPerMember);
+                    for (int o = 0; o < ordersPerMember; o++) {
+                        List<OrderLineRow> lines = new ArrayList<>(itemsPerOrder);
+                        for (int i = 0; i < itemsPerOrder; i++) {
+                            int at = (n + o + i) % catalog.size();
+                            lines.add(new OrderLineRow(catalog.ids[at], catalog.prices[at], 1 + i));
+                        }
+                        orders.add(new OrderRow(now.minusMinutes((long) n * ordersPerMember + o), lines));
+                    }
+                    return new MemberRow(prefix + "member" + n,
+                            new Address("city" + n % 100, "street" + n, "123-123"), orders);
+                })
+                .iterator();
+    }
+
+    /**
+     * 주문에 넣을 상품 (id, 가격) - ItemRepository.findIdAndPrices()
+     */
+    public static final class Catalog {
+
+        private final long[] ids;
+        private final int[] prices;
+
+        public Catalog(List<Object[]> idAndPrices) {
+            ids = new long[idAndPrices.size()];
+            prices = new int[idAndPrices.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = (Long) idAndPrices.get(i)[0];
+                prices[i] = (Integer) idAndPrices.get(i)[1];
+            }
+        }
+
+        public int size() {
+            return ids.length;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package jpabook.jpashop.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jpabook.jpashop.sql.SqlStatementStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+@EnableAsync
+@Configuration
+public class AsyncConfig {
+
+    public static final String ORDER_SEARCH_EXECUTOR = "orderSearchExecutor";
+
+    /**
+     * 주문 검색(DB 조회) 전용 executor, @Async(ORDER_SEARCH_EXECUTOR) 로만 사용
+     * 스레드 수 = 커넥션 풀 크기 (더 많아도 커넥션 대기만 늘어남), 큐가 가득 차면 TaskRejectedException (-> 503)
+     * autowireCandidate = false: 스프링 부트가 다른 용도(JPA 부트스트랩 등)의 기본 executor로 가져가지 않도록
+     */
+    @Bean(name = ORDER_SEARCH_EXECUTOR, autowireCandidate = false)
+    public ThreadPoolTaskExecutor orderSearchExecutor(MeterRegistry registry,
+                                                      @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+                                                      @Value("${jpashop.async.order-search.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("order-search-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+
+        Tags tags = Tags.of("name", ORDER_SEARCH_EXECUTOR);
+        Gauge.builder("executor.queued", executor, e -> e.getThreadPoolExecutor().getQueue().size())
+                .description("큐에서 대기 중인 작업 수")
+                .tags(tags)
+                .register(registry);
+        Gauge.builder("executor.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+                .tags(tags)
+                .register(registry);
+        Timer waitTimer = Timer.builder("executor.queue.wait")
+                .description("작업이 큐에서 실행되기까지 기다린 시간")
+                .tags(tags)
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+        Counter rejected = Counter.builder("executor.rejected")
+                .tags(tags)
+                .register(registry);
+
+        // 요청의 SQL 통계(SqlStatementFilter)를 작업 스레드로 전달 -> 비동기 검색의 SQL 도 요청에 집계
+        executor.setTaskDecorator(task -> {
+            long queuedAt = System.nanoTime();
+            Runnable withSqlStats = SqlStatementStats.propagate(task);
+            return () -> {
+                waitTimer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                withSqlStats.run();
+            };
+        });
+        executor.setRejectedExecutionHandler((task, pool) -> {
+            rejected.increment();
+            throw new RejectedExecutionException("주문 검색 대기열이 가득 찼습니다.");
+        });
+        return executor;
+    }
+}
@@ -0,0 +1,76 @@
+package jpabook.jpashop.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * 하이버네이트 2차 캐시 (JCache + Caffeine)
+ * - item: Item 엔티티 캐시 (Book, Album, Movie 공용)
+ * - item-query: ItemRepository.findAll 쿼리 캐시 (id 목록만 저장, 엔티티는 item 캐시에서 조회)
+ * 벌크 HQL update 는 하이버네이트가 item region 전체와 item 테이블 쿼리 캐시를 비우므로,
+ * 주문마다 실행되는 재고 update(ItemRepository.removeStock, addStock)는 native + 바뀐 상품만 evict
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    public static final String ITEM_REGION = "item";
+    public static final String ITEM_QUERY_REGION = "item-query";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(@Value("${jpashop.cache.item.max-entries:10000}") long maxEntries,
+                                              @Value("${jpashop.cache.item.ttl:10m}") Duration ttl) {
+        // 스프링 컨텍스트마다 별도 CacheManager (테스트에서 컨텍스트가 여러 개 떠도 캐시가 섞이지 않도록)
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("jpashop-" + UUID.randomUUID()), getClass().getClassLoader());
+
+        cacheManager.createCache(ITEM_REGION, regionConfiguration(maxEntries, ttl));
+        cacheManager.createCache(ITEM_QUERY_REGION, regionConfiguration(maxEntries, ttl));
+        // 쿼리 캐시 무효화 기준 (테이블별 마지막 변경 시각) -> 만료, 제거되면 안됨
+        CaffeineConfiguration<Object, Object> timestamps = new CaffeineConfiguration<>();
+        timestamps.setStatisticsEnabled(true);
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, timestamps);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheCustomizer(CacheManager hibernateCacheManager,
+                                                                  @Value("${jpashop.cache.enabled:true}") boolean enabled) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, enabled);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, enabled);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+        };
+    }
+
+    // cache.gets{result=hit|miss}, cache.puts, cache.evictions ... (cache 태그 = region 이름)
+    @Bean
+    public MeterBinder hibernateCacheMetrics(CacheManager hibernateCacheManager) {
+        return registry -> hibernateCacheManager.getCacheNames()
+                .forEach(name -> JCacheMetrics.monitor(registry, hibernateCacheManager.getCache(name)));
+    }
+
+    private static CaffeineConfiguration<Object, Object> regionConfiguration(long maxEntries, Duration ttl) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxEntries));
+        configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+}
@@ -0,0 +1,73 @@
+package jpabook.jpashop.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jpabook.jpashop.domain.PooledSequenceGenerator;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayConfigurationCustomizer;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Collections;
+
+@Configuration
+public class HibernateConfig {
+
+    private static final String ALLOCATION_SIZE = "${jpashop.id.allocation-size:" + PooledSequenceGenerator.DEFAULT_ALLOCATION_SIZE + "}";
+
+    // jpashop.* 설정을 하이버네이트 설정으로 전달
+    @Bean
+    public HibernatePropertiesCustomizer jpashopHibernatePropertiesCustomizer(
+            @Value(ALLOCATION_SIZE) int allocationSize,
+            @Value("${jpashop.query.plan-cache-size:2048}") int planCacheSize) {
+        return properties -> {
+            properties.put(PooledSequenceGenerator.ALLOCATION_SIZE, allocationSize);
+            properties.put(AvailableSettings.QUERY_PLAN_CACHE_MAX_SIZE, planCacheSize);
+            properties.put(AvailableSettings.QUERY_PLAN_CACHE_PARAMETER_METADATA_MAX_SIZE, planCacheSize);
+        };
+    }
+
+    // 마이그레이션의 시퀀스 increment 도 같은 값으로 (다르면 ddl-auto: validate 에서 실패)
+    @Bean
+    public FlywayConfigurationCustomizer jpashopFlywayConfigurationCustomizer(@Value(ALLOCATION_SIZE) int allocationSize) {
+        return configuration -> configuration.placeholders(
+                Collections.singletonMap("id_allocation_size", String.valueOf(allocationSize)));
+    }
+
+    // hibernate.query.plan.cache{result=hit|miss}, hibernate.query.plan.cache.hit.ratio
+    // hit/miss 는 하이버네이트 statistics 로만 집계됨 -> jpa-instrumentation 스타터가 켬 (jpa.instrumentation.hibernate-statistics.enabled, 기본 true)
+    // EntityManagerFactory 는 조회 시점에 가져옴 (MeterRegistry 가 DataSource 보다 먼저 만들어져서 직접 주입하면 순환 참조)
+    @Bean
+    public MeterBinder queryPlanCacheMetrics(ObjectProvider<EntityManagerFactory> entityManagerFactory) {
+        return registry -> {
+            FunctionCounter.builder("hibernate.query.plan.cache", entityManagerFactory, emf -> statistics(emf).getQueryPlanCacheHitCount())
+                    .tag("result", "hit")
+                    .description("HQL/JPQL 쿼리 플랜 캐시 조회 (statistics 가 켜져 있을 때만 집계)")
+                    .register(registry);
+            FunctionCounter.builder("hibernate.query.plan.cache", entityManagerFactory, emf -> statistics(emf).getQueryPlanCacheMissCount())
+                    .tag("result", "miss")
+                    .description("HQL/JPQL 쿼리 플랜 캐시 조회 (statistics 가 켜져 있을 때만 집계)")
+                    .register(registry);
+            Gauge.builder("hibernate.query.plan.cache.hit.ratio", entityManagerFactory, HibernateConfig::planCacheHitRatio)
+                    .register(registry);
+        };
+    }
+
+    private static double planCacheHitRatio(ObjectProvider<EntityManagerFactory> entityManagerFactory) {
+        Statistics statistics = statistics(entityManagerFactory);
+        long hit = statistics.getQueryPlanCacheHitCount();
+        long total = hit + statistics.getQueryPlanCacheMissCount();
+        return total == 0 ? Double.NaN : (double) hit / total;
+    }
+
+    private static Statistics statistics(ObjectProvider<EntityManagerFactory> entityManagerFactory) {
+        return entityManagerFactory.getObject().unwrap(SessionFactory.class).getStatistics();
+    }
+}
@@ -0,0 +1,120 @@
+package jpabook.jpashop.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * primary + replica 커넥션 풀, replica 복제 지연 측정
+ * primary 의 replica_heartbeat 시각과 replica 로 복제된 시각의 차이 = 지연 (같은 값을 비교하므로 서버 시계 차이와 무관)
+ * 지연이 max-lag 이하인 replica 만 읽기에 사용, 조회에 실패한 replica 도 제외
+ */
+@Slf4j
+public class ReplicaDataSources implements AutoCloseable {
+
+    private static final String READ_HEARTBEAT = "select beat_at from replica_heartbeat where id = 1";
+    private static final String WRITE_HEARTBEAT = "update replica_heartbeat set beat_at = ? where id = 1";
+
+    private final HikariDataSource primary;
+    private final Map<String, HikariDataSource> replicas;
+    private final long maxLagMillis;
+    private final Duration checkInterval;
+
+    private final Map<String, Long> lagMillis = new ConcurrentHashMap<>(); // 조회에 실패한 replica 는 없음
+    private volatile List<String> available = Collections.emptyList();
+    private ScheduledExecutorService scheduler;
+
+    public ReplicaDataSources(HikariDataSource primary, Map<String, HikariDataSource> replicas, Duration maxLag, Duration checkInterval) {
+        this.primary = primary;
+        this.replicas = replicas;
+        this.maxLagMillis = maxLag.toMillis();
+        this.checkInterval = checkInterval;
+    }
+
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "replica-lag-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::check, 0, checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * replica 지연 측정 후 heartbeat 갱신
+     */
+    public synchronized void check() {
+        Timestamp primaryBeat;
+        try {
+            primaryBeat = readHeartbeat(primary);
+        } catch (RuntimeException e) {
+            log.warn("primary heartbeat 조회 실패, replica 상태 유지", e);
+            return;
+        }
+
+        List<String> ok = new ArrayList<>();
+        replicas.forEach((name, replica) -> {
+            try {
+                long lag = Math.max(0, primaryBeat.getTime() - readHeartbeat(replica).getTime());
+                lagMillis.put(name, lag);
+                if (lag <= maxLagMillis) {
+                    ok.add(name);
+                }
+            } catch (RuntimeException e) {
+                lagMillis.remove(name);
+                log.warn("replica {} heartbeat 조회 실패, 읽기에서 제외", name, e);
+            }
+        });
+        available = Collections.unmodifiableList(ok);
+
+        try {
+            new JdbcTemplate(primary).update(WRITE_HEARTBEAT, new Timestamp(System.currentTimeMillis()));
+        } catch (RuntimeException e) {
+            log.warn("primary heartbeat 기록 실패", e);
+        }
+    }
+
+    private static Timestamp readHeartbeat(HikariDataSource dataSource) {
+        return new JdbcTemplate(dataSource).queryForObject(READ_HEARTBEAT, Timestamp.class);
+    }
+
+    public HikariDataSource getPrimary() {
+        return primary;
+    }
+
+    public Map<String, HikariDataSource> getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * 읽기에 쓸 수 있는 replica (지연 max-lag 이하)
+     */
+    public List<String> availableReplicas() {
+        return available;
+    }
+
+    /**
+     * 마지막으로 측정한 지연 (ms), 조회 실패면 NaN
+     */
+    public double lagMillis(String replica) {
+        Long lag = lagMillis.get(replica);
+        return lag == null ? Double.NaN : lag;
+    }
+
+    @Override
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        replicas.values().forEach(HikariDataSource::close);
+        primary.close();
+    }
+}
@@ -0,0 +1,107 @@
+package jpabook.jpashop.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * jpashop.replica.enabled=true: 읽기전용 트랜잭션은 read replica, 쓰기는 primary(spring.datasource)
+ * replica 는 jpashop.replica.urls, 계정과 풀 설정(spring.datasource.hikari.*)은 primary 와 같음
+ * 스키마는 replica 로 복제된다고 가정 (flyway 는 primary 에만 실행)
+ * spring.jpa.open-in-view=false 필수: OSIV 는 요청의 첫 트랜잭션이 얻은 커넥션을 요청 끝까지 잡고 있으므로
+ * readOnly 조회 뒤의 쓰기가 replica 커넥션으로 감 (설정하지 않으면 시작 실패)
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "jpashop.replica", name = "enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    public ReplicaRoutingConfig(Environment environment) {
+        if (environment.getProperty("spring.jpa.open-in-view", Boolean.class, true)) {
+            throw new IllegalStateException("jpashop.replica.enabled=true 이면 spring.jpa.open-in-view=false 로 설정해야 합니다."
+                    + " (open-in-view 는 요청 안의 모든 트랜잭션이 첫 트랜잭션의 커넥션을 사용)");
+        }
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public ReplicaDataSources replicaDataSources(DataSourceProperties properties, Environment environment,
+                                                 @Value("${jpashop.replica.urls}") List<String> urls,
+                                                 @Value("${jpashop.replica.max-lag:2s}") Duration maxLag,
+                                                 @Value("${jpashop.replica.lag-check-interval:1s}") Duration checkInterval) {
+        HikariDataSource primary = pool(properties, environment, "primary", properties.determineUrl(), false);
+        Map<String, HikariDataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < urls.size(); i++) {
+            String name = "replica-" + i;
+            replicas.put(name, pool(properties, environment, name, urls.get(i), true));
+        }
+        return new ReplicaDataSources(primary, replicas, maxLag, checkInterval);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaDataSources replicaDataSources) {
+        return new ReplicaRoutingDataSource(replicaDataSources);
+    }
+
+    // 스프링 부트 기본 JpaTransactionManager 대신 (readOnly 트랜잭션 시작 시 replica 선택)
+    @Bean
+    public PlatformTransactionManager transactionManager(ObjectProvider<TransactionManagerCustomizers> transactionManagerCustomizers) {
+        JpaTransactionManager transactionManager = new ReplicaRoutingTransactionManager();
+        transactionManagerCustomizers.ifAvailable(customizers -> customizers.customize(transactionManager));
+        return transactionManager;
+    }
+
+    // jdbc.replica.lag{replica} + 풀마다 hikaricp.* (pool = primary, replica-0 ...)
+    @Bean
+    public MeterBinder replicaMetrics(ReplicaDataSources replicaDataSources) {
+        return registry -> {
+            replicaDataSources.getReplicas().keySet().forEach(name ->
+                    Gauge.builder("jdbc.replica.lag", replicaDataSources, r -> r.lagMillis(name))
+                            .tag("replica", name)
+                            .baseUnit("milliseconds")
+                            .description("primary 대비 복제 지연 (조회 실패면 NaN)")
+                            .register(registry));
+
+            replicaDataSources.getReplicas().values().forEach(pool -> bindPoolMetrics(pool, registry));
+            bindPoolMetrics(replicaDataSources.getPrimary(), registry);
+        };
+    }
+
+    private static void bindPoolMetrics(HikariDataSource pool, MeterRegistry registry) {
+        // 스프링 부트가 이미 연결한 풀(@Primary 를 따라가면 primary)은 건너뜀
+        if (pool.getMetricRegistry() == null && pool.getMetricsTrackerFactory() == null) {
+            pool.setMetricRegistry(registry);
+        }
+    }
+
+    private static HikariDataSource pool(DataSourceProperties properties, Environment environment,
+                                         String name, String url, boolean readOnly) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(url)
+                .build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName(name);
+        pool.setReadOnly(readOnly);
+        return pool;
+    }
+}
@@ -0,0 +1,53 @@
+package jpabook.jpashop.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @Transactional(readOnly = true) -> 지연이 작은 replica 중 하나 (돌아가면서), 나머지 -> primary
+ * 쓸 수 있는 replica 가 없으면 primary
+ * 트랜잭션의 커넥션은 시작(doBegin)할 때 얻으므로 readOnly 여부는 ReplicaRoutingTransactionManager 가 그동안만 알려줌
+ * (TransactionSynchronizationManager 의 readOnly 는 커넥션을 얻은 다음에 설정됨)
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+
+    private static final ThreadLocal<Boolean> readOnlyBegin = new ThreadLocal<>();
+
+    private final ReplicaDataSources dataSources;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(ReplicaDataSources dataSources) {
+        this.dataSources = dataSources;
+
+        Map<Object, Object> targets = new HashMap<>(dataSources.getReplicas());
+        targets.put(PRIMARY, dataSources.getPrimary());
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(dataSources.getPrimary());
+    }
+
+    static void beginReadOnly() {
+        readOnlyBegin.set(Boolean.TRUE);
+    }
+
+    static void endBegin() {
+        readOnlyBegin.remove();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (readOnlyBegin.get() == null) {
+            return PRIMARY;
+        }
+        List<String> replicas = dataSources.availableReplicas();
+        if (replicas.isEmpty()) {
+            return PRIMARY;
+        }
+        return replicas.get(Math.floorMod(next.getAndIncrement(), replicas.size()));
+    }
+}
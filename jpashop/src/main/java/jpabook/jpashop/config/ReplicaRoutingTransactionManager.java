@@ -0,0 +1,26 @@
+package jpabook.jpashop.config;
+
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+/**
+ * 읽기전용 트랜잭션이 커넥션을 얻는 동안 ReplicaRoutingDataSource 가 replica 를 고르도록 표시
+ * 시작할 때 얻은 커넥션을 트랜잭션 끝까지 사용하므로 시작하는 동안만 표시하면 됨
+ * (open-in-view 면 요청의 첫 트랜잭션 커넥션을 계속 쓰므로 ReplicaRoutingConfig 가 시작을 막음)
+ */
+public class ReplicaRoutingTransactionManager extends JpaTransactionManager {
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        if (!definition.isReadOnly()) {
+            super.doBegin(transaction, definition);
+            return;
+        }
+        ReplicaRoutingDataSource.beginReadOnly();
+        try {
+            super.doBegin(transaction, definition);
+        } finally {
+            ReplicaRoutingDataSource.endBegin();
+        }
+    }
+}
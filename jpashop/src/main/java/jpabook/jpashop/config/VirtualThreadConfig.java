@@ -0,0 +1,69 @@
+package jpabook.jpashop.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * virtual 프로필: 톰캣 요청 처리(= 컨트롤러, @Transactional 서비스)를 가상 스레드에서 실행 (JDK 21 이상)
+ * 스레드 수 대신 ConnectionLimitingDataSource 의 semaphore 로 DB 동시성 제한
+ * 컴파일 타겟은 11 그대로라서 가상 스레드 API 는 리플렉션으로 호출
+ *
+ * ./gradlew bootJar -Pvirtual 후 JDK 21 로 java -jar build/libs/jpashop-0.0.1-SNAPSHOT.jar --spring.profiles.active=virtual
+ * (gradle 6.6.1 은 JDK 21 에서 실행되지 않으므로 bootRun/test 로는 실행 불가)
+ */
+@Profile("virtual")
+@Configuration
+public class VirtualThreadConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService virtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("virtual 프로필은 JDK 21 이상에서만 사용할 수 있습니다. (현재 " + Runtime.version() + ")", e);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer(ExecutorService virtualThreadExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+    }
+
+    @Bean
+    public static BeanPostProcessor connectionLimitingDataSourcePostProcessor(
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int maxConnections,
+            @Value("${jpashop.virtual.connection-timeout:30s}") Duration timeout) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+                if (bean instanceof DataSource && !(bean instanceof ConnectionLimitingDataSource)) {
+                    return new ConnectionLimitingDataSource((DataSource) bean, maxConnections, timeout);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public Gauge connectionPermitWaiting(MeterRegistry registry, DataSource dataSource) throws SQLException {
+        ConnectionLimitingDataSource limited = dataSource.unwrap(ConnectionLimitingDataSource.class);
+        return Gauge.builder("jdbc.connections.permit.waiting", limited, ConnectionLimitingDataSource::waitingThreads)
+                .description("커넥션 permit 을 기다리는 스레드 수")
+                .register(registry);
+    }
+}
@@ -0,0 +1,20 @@
+package jpabook.jpashop.config;
+
+import jpabook.jpashop.api.VersionedResourceInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    private final VersionedResourceInterceptor versionedResourceInterceptor;
+
+    // @VersionedResource API 의 ETag/304/응답 캐시
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(versionedResourceInterceptor);
+    }
+}
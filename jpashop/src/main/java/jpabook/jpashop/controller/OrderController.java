@@ -8,11 +8,16 @@ import jpabook.jpashop.service.ItemService;
 import jpabook.jpashop.service.MemberService;
 import jpabook.jpashop.service.OrderService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Controller
 @RequiredArgsConstructor
@@ -51,6 +56,24 @@ public class OrderController {
         return "orders/orderList";
     }
 
+    // 검색은 DB 전용 executor에서 실행, 요청 스레드는 바로 반환 (완료되면 화면 렌더링)
+    @GetMapping("/orders/async")
+    public CompletableFuture<String> orderListAsync(@ModelAttribute("orderSearch") OrderSearch orderSearch, Model model) {
+        return orderService.findOrdersAsync(orderSearch)
+                .thenApply(orders -> {
+                    model.addAttribute("orders", orders);
+                    return "orders/orderList";
+                });
+    }
+
+    // 검색 대기열이 가득 차면 대기하지 않고 바로 503
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<String> orderSearchRejected() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("주문 조회 요청이 많습니다. 잠시 후 다시 시도해주세요.");
+    }
+
     @PostMapping("/orders/{orderId{/cancel")
     public String cancelOrder(@PathVariable("orderId") Long orderId) {
         orderService.cancelOrder(orderId);
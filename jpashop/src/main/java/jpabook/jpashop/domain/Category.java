@@ -12,7 +12,7 @@ import java.util.List;
 @Getter @Setter
 public class Category {
 
-    @Id @GeneratedValue
+    @Id @GeneratedValue(generator = "pooled_seq")
     @Column(name = "category_id")
     private Long id;
 
@@ -34,6 +34,6 @@ public class Category {
     // 연관관계 편의 메서드
     public void addChildCategory(Category child) {
         this.child.add(child);
-        child.setParent(parent);
+        child.setParent(this);
     }
 }
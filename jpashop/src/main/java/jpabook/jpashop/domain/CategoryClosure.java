@@ -0,0 +1,42 @@
+package jpabook.jpashop.domain;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+
+import static javax.persistence.FetchType.LAZY;
+
+/**
+ * 카테고리 closure 테이블: 조상-자손 쌍을 모두 저장 (자기 자신도 depth 0으로 포함)
+ * 하위 트리 전체 조회를 재귀 없이 ancestor_id 인덱스 한 번으로 처리
+ */
+@Entity
+@Table(name = "category_closure",
+        uniqueConstraints = @UniqueConstraint(name = "uk_category_closure_ancestor_descendant", columnNames = {"ancestor_id", "descendant_id"}),
+        indexes = @Index(name = "idx_category_closure_descendant", columnList = "descendant_id"))
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class CategoryClosure {
+
+    @Id @GeneratedValue(generator = "pooled_seq")
+    @Column(name = "category_closure_id")
+    private Long id;
+
+    @ManyToOne(fetch = LAZY)
+    @JoinColumn(name = "ancestor_id")
+    private Category ancestor;
+
+    @ManyToOne(fetch = LAZY)
+    @JoinColumn(name = "descendant_id")
+    private Category descendant;
+
+    private int depth; // ancestor -> descendant 거리
+
+    public CategoryClosure(Category ancestor, Category descendant, int depth) {
+        this.ancestor = ancestor;
+        this.descendant = descendant;
+        this.depth = depth;
+    }
+}
@@ -1,6 +1,8 @@
 package jpabook.jpashop.domain;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import jpabook.jpashop.repository.MemberNameFilterListener;
+import jpabook.jpashop.repository.MemberNameIndexListener;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -10,10 +12,12 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_member_name", columnNames = "name")) // 중복 가입 방지, 주문 검색(회원명)용 인덱스 겸용
+@EntityListeners({MemberNameIndexListener.class, MemberNameFilterListener.class}) // 이름 부분 검색 색인, 중복 검사 필터
 @Getter @Setter
 public class  Member {
     
-    @Id @GeneratedValue
+    @Id @GeneratedValue(generator = "pooled_seq")
     @Column(name = "member_id")
     private Long id;
 
@@ -23,6 +27,10 @@ public class  Member {
     @Embedded
     private Address address;
 
+    @Embedded
+    private MemberOrderSummary orderSummary = new MemberOrderSummary();
+
+    // 주문이 많은 회원은 전부 읽게 되므로 조회에 쓰지 않음 (OrderHistoryRepository 로 페이징 조회)
     @JsonIgnore
     @OneToMany(mappedBy = "member")
     private List<Order> orders = new ArrayList<>();
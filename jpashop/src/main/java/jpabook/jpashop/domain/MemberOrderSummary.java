@@ -0,0 +1,30 @@
+package jpabook.jpashop.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import java.time.LocalDateTime;
+
+/**
+ * 회원 주문 요약 (member 테이블 컬럼)
+ * Member.orders 를 읽지 않고 보여주기 위해 주문 생성/취소 때마다 갱신
+ * - 컬럼은 MemberRepository 의 update 로 DB 에서 원자적으로만 바뀜 (읽고 고쳐 쓰면 동시 주문, 일괄 취소와 갱신이 유실됨)
+ * - updatable = false: 회원 엔티티 dirty checking 으로는 덮어쓰지 않음, insert 할 때만 (대량 적재) 값을 넣음
+ * - 같은 트랜잭션에서 요약을 바꾼 뒤의 엔티티 값은 이전 값 (다시 읽어야 함)
+ */
+@Embeddable
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class MemberOrderSummary {
+
+    @Column(updatable = false)
+    private int orderCount; // 취소되지 않은 주문 수
+    @Column(updatable = false)
+    private LocalDateTime lastOrderDate; // 마지막 주문 시간 (취소해도 유지)
+    @Column(updatable = false)
+    private long lifetimeSpend; // 취소되지 않은 주문 총액 합계
+}
@@ -12,12 +12,35 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_order_date_id", columnList = "orderDate, order_id"), // keyset 페이징용
+        @Index(name = "idx_orders_status_member", columnList = "status, member_id"), // 주문 검색용 (스키마는 db/migration)
+        @Index(name = "idx_orders_member_order_date", columnList = "member_id, orderDate, order_id")}) // 회원별 주문 이력 (orderDate desc)
+@NamedQueries({ // OrderRepository.findAllByCriteria: 검색 조건 조합별 쿼리 (시작할 때 한 번만 파싱)
+        @NamedQuery(name = Order.SEARCH_ALL,
+                query = "select o from Order o join o.member m"),
+        @NamedQuery(name = Order.SEARCH_BY_STATUS,
+                query = "select o from Order o join o.member m where o.status = :status"),
+        @NamedQuery(name = Order.SEARCH_BY_NAME, // :name 은 OrderRepository.containsPattern 으로 (\, %, _ 이스케이프)
+                query = "select o from Order o join o.member m where m.name like :name escape '\\'"),
+        @NamedQuery(name = Order.SEARCH_BY_STATUS_AND_NAME,
+                query = "select o from Order o join o.member m where o.status = :status and m.name like :name escape '\\'"),
+        @NamedQuery(name = Order.SEARCH_BY_MEMBER_IDS, // 회원명 -> MemberNameIndex 로 찾은 회원 id
+                query = "select o from Order o join o.member m where m.id in :memberIds"),
+        @NamedQuery(name = Order.SEARCH_BY_STATUS_AND_MEMBER_IDS,
+                query = "select o from Order o join o.member m where o.status = :status and m.id in :memberIds")})
 @Getter @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class Order {
-    
-    @Id @GeneratedValue
+
+    public static final String SEARCH_ALL = "Order.searchAll";
+    public static final String SEARCH_BY_STATUS = "Order.searchByStatus";
+    public static final String SEARCH_BY_NAME = "Order.searchByName";
+    public static final String SEARCH_BY_STATUS_AND_NAME = "Order.searchByStatusAndName";
+    public static final String SEARCH_BY_MEMBER_IDS = "Order.searchByMemberIds";
+    public static final String SEARCH_BY_STATUS_AND_MEMBER_IDS = "Order.searchByStatusAndMemberIds";
+
+    @Id @GeneratedValue(generator = "pooled_seq")
     @Column(name = "order_id")
     private Long id;
 
@@ -38,6 +61,9 @@ public class Order {
     @Enumerated(EnumType.STRING)
     private OrderStatus status; // 주문상태 [ORDER, CANCEL]
 
+    // 주문 상품 가격 합계 (orderItems 를 읽지 않고 목록에 보여주기 위해 컬럼으로 유지, OrderTotalPriceReconciler 로 검증)
+    private int totalPrice;
+
     // 연관관계 편의 메서드
     public void setMember(Member member) {
         this.member = member;
@@ -47,6 +73,7 @@ public class Order {
     public void addOrderItem(OrderItem orderItem) {
         this.orderItems.add(orderItem);
         orderItem.setOrder(this);
+        this.totalPrice += orderItem.getTotalPrice();
     }
 
     public void setDelivery(Delivery delivery) {
@@ -56,6 +83,11 @@ public class Order {
 
     // 생성 메서드
     public static Order createOrder(Member member, Delivery delivery, OrderItem... orderItems) {
+        return createOrder(member, delivery, LocalDateTime.now(), orderItems);
+    }
+
+    // 주문 시간 지정 (대량 적재)
+    public static Order createOrder(Member member, Delivery delivery, LocalDateTime orderDate, OrderItem... orderItems) {
         Order order = new Order();
         order.setMember(member);
         order.setDelivery(delivery);
@@ -63,7 +95,7 @@ public class Order {
             order.addOrderItem(orderItem);
         }
         order.setStatus(OrderStatus.ORDER);
-        order.setOrderDate(LocalDateTime.now());
+        order.setOrderDate(orderDate);
 
         return order;
     }
@@ -73,26 +105,38 @@ public class Order {
      * 주문 취소
      */
     public void cancel() {
+        cancelReserved();
+        for (OrderItem orderItem : orderItems) {
+            orderItem.cancel();
+        }
+        // totalPrice 는 그대로 (취소해도 금액은 유지, 상태로 구분), 컬럼이 틀렸으면 OrderTotalPriceReconciler 로 확인/수정
+    }
+
+    /**
+     * 주문 취소 (재고 원복은 호출측에서 DB update로 처리)
+     */
+    public void cancelReserved() {
+        if (status == OrderStatus.CANCEL) { // 두 번 취소하면 재고, 회원 주문 요약이 또 바뀜 (일괄 취소의 status = 'ORDER' 조건과 같음)
+            throw new IllegalStateException("이미 취소된 주문입니다.");
+        }
         if(delivery.getStatus() == DeliveryStatus.COMPLITE) {
             throw new IllegalStateException("이미 배송이 완료되어 상품 취소가 불가능합니다.");
         }
 
         this.setStatus(OrderStatus.CANCEL);
-        for (OrderItem orderItem : orderItems) {
-            orderItem.cancel();
-        }
     }
 
     /**
-     * 전체 주문 가격 조회
+     * 전체 주문 가격 조회 (컬럼, orderItems 를 읽지 않음)
      */
     public int getTotalPrice() {
-        /*int totalPrice = 0;
-        for(OrderItem orderItem : orderItems) {
-            totalPrice += orderItem.getTotalPrice();
-        }
-        return totalPrice;*/
+        return totalPrice;
+    }
 
+    /**
+     * 주문상품으로 다시 계산한 가격 (totalPrice 검증용, orderItems 를 읽음)
+     */
+    public int calculateTotalPrice() {
         return orderItems.stream()
                 .mapToInt(OrderItem::getTotalPrice)
                 .sum();
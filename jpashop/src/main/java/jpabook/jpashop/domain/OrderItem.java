@@ -11,11 +11,11 @@ import javax.persistence.*;
 
 @Entity
 @Getter @Setter
-@Table(name = "order_item")
+@Table(name = "order_item", indexes = @Index(name = "idx_order_item_order_covering", columnList = "order_id, item_id, orderPrice, count")) // 주문상품 in 조회용 covering 인덱스
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class OrderItem {
     
-    @Id @GeneratedValue
+    @Id @GeneratedValue(generator = "pooled_seq")
     @Column(name = "order_item_id")
     private Long id;
 
@@ -45,6 +45,15 @@ public class OrderItem {
         return orderItem;
     }
 
+    // 재고를 이미 DB에서 차감한 경우 (ItemRepository.removeStock)
+    public static OrderItem createReservedOrderItem(Item item, int orderPrice, int count) {
+        OrderItem orderItem = new OrderItem();
+        orderItem.setItem(item);
+        orderItem.setOrderPrice(orderPrice);
+        orderItem.setCount(count);
+        return orderItem;
+    }
+
     // 비즈니스 로직
     /**
      * 주문 취소 (재고수량 원복)
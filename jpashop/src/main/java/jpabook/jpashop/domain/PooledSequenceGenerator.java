@@ -0,0 +1,38 @@
+package jpabook.jpashop.domain;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * 엔티티 공통 id 생성기 (package-info 의 "pooled_seq")
+ * 엔티티마다 시퀀스를 하나씩 두고(member_seq, order_seq ...), pooled-lo 로 allocation size 만큼 id를 미리 확보
+ * -> insert 마다 시퀀스를 조회하지 않음 (allocation size 1 이면 매번 조회)
+ */
+public class PooledSequenceGenerator extends SequenceStyleGenerator {
+
+    public static final String ALLOCATION_SIZE = "jpashop.id.allocation_size";
+    public static final int DEFAULT_ALLOCATION_SIZE = 50;
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+        Map<?, ?> settings = serviceRegistry.getService(ConfigurationService.class).getSettings();
+        int allocationSize = ConfigurationHelper.getInt(ALLOCATION_SIZE, settings, DEFAULT_ALLOCATION_SIZE);
+
+        params.setProperty(CONFIG_PREFER_SEQUENCE_PER_ENTITY, "true");
+        params.setProperty(CONFIG_SEQUENCE_PER_ENTITY_SUFFIX, "_seq");
+        params.setProperty(INCREMENT_PARAM, String.valueOf(allocationSize));
+        params.setProperty(OPT_PARAM, allocationSize > 1
+                ? StandardOptimizerDescriptor.POOLED_LO.getExternalName()
+                : StandardOptimizerDescriptor.NONE.getExternalName());
+
+        super.configure(type, params, serviceRegistry);
+    }
+}
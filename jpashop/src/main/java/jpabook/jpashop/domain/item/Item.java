@@ -5,6 +5,8 @@ import jpabook.jpashop.exception.NotEnoughStockException;
 import lombok.Getter;
 import lombok.Setter;
 import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 import java.util.ArrayList;
@@ -12,12 +14,14 @@ import java.util.List;
 
 @BatchSize(size = 100)
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "item") // 2차 캐시 (HibernateCacheConfig)
 @Getter @Setter
 @Inheritance(strategy = InheritanceType.SINGLE_TABLE)
 @DiscriminatorColumn(name = "dtype")
 public abstract class Item {
     
-    @Id @GeneratedValue
+    @Id @GeneratedValue(generator = "pooled_seq")
     @Column(name = "item_id")
     private Long id;
 
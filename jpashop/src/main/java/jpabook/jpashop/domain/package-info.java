@@ -0,0 +1,7 @@
+/**
+ * 모든 엔티티는 @GeneratedValue(generator = "pooled_seq") 로 id 생성 (PooledSequenceGenerator)
+ */
+@GenericGenerator(name = "pooled_seq", strategy = "jpabook.jpashop.domain.PooledSequenceGenerator")
+package jpabook.jpashop.domain;
+
+import org.hibernate.annotations.GenericGenerator;
@@ -0,0 +1,22 @@
+package jpabook.jpashop.exception;
+
+/**
+ * 취소하려는 주문을 다른 요청이 먼저 취소했거나 배송이 완료됨 (409)
+ */
+public class OrderCancelConflictException extends RuntimeException {
+    public OrderCancelConflictException() {
+        super();
+    }
+
+    public OrderCancelConflictException(String message) {
+        super(message);
+    }
+
+    public OrderCancelConflictException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public OrderCancelConflictException(Throwable cause) {
+        super(cause);
+    }
+}
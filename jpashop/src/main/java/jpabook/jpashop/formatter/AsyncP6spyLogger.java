@@ -0,0 +1,84 @@
+package jpabook.jpashop.formatter;
+
+import com.p6spy.engine.logging.Category;
+import com.p6spy.engine.spy.appender.FormattedLogger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * P6spy 비동기 appender
+ * JDBC 호출 스레드는 포맷된 메시지를 bounded queue에 넣기만 하고(대기 없음), 별도 스레드가 slf4j로 출력
+ * 큐가 가득 차면 버리고 dropped 카운트만 증가 -> 로그 때문에 쿼리가 느려지지 않음
+ */
+public class AsyncP6spyLogger extends FormattedLogger {
+
+    private static final Logger log = LoggerFactory.getLogger("p6spy");
+    private static final int DEFAULT_CAPACITY = 8192;
+
+    private static final AtomicLong dropped = new AtomicLong();
+    private static volatile BlockingQueue<String> queue;
+
+    public static synchronized void start(int capacity) {
+        if (queue != null) {
+            return;
+        }
+        BlockingQueue<String> q = new ArrayBlockingQueue<>(capacity);
+        Thread worker = new Thread(() -> drain(q), "p6spy-async-logger");
+        worker.setDaemon(true);
+        worker.start();
+        queue = q;
+    }
+
+    private static void drain(BlockingQueue<String> q) {
+        try {
+            while (true) {
+                log.info(q.take());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public static long droppedCount() {
+        return dropped.get();
+    }
+
+    public static int queueSize() {
+        BlockingQueue<String> q = queue;
+        return q == null ? 0 : q.size();
+    }
+
+    @Override
+    public void logText(String text) {
+        BlockingQueue<String> q = queue;
+        if (q == null) {
+            start(DEFAULT_CAPACITY);
+            q = queue;
+        }
+        if (!q.offer(text)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void logException(Exception e) {
+        log.info("", e);
+    }
+
+    @Override
+    public boolean isCategoryEnabled(Category category) {
+        if (Category.ERROR.equals(category)) {
+            return log.isErrorEnabled();
+        } else if (Category.WARN.equals(category)) {
+            return log.isWarnEnabled();
+        } else if (Category.DEBUG.equals(category)) {
+            return log.isDebugEnabled();
+        } else {
+            return log.isInfoEnabled();
+        }
+    }
+}
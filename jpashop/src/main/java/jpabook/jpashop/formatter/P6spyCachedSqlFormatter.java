@@ -0,0 +1,68 @@
+package jpabook.jpashop.formatter;
+
+import com.p6spy.engine.logging.Category;
+import com.p6spy.engine.spy.appender.MessageFormattingStrategy;
+import org.hibernate.engine.jdbc.internal.FormatStyle;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * P6spyPrettySqlFormatter 대체
+ * - 바인딩 전 SQL(prepared, ? 포함) 형태별로 Hibernate 포맷 결과를 캐시 -> 같은 형태는 한 번만 pretty print
+ * - DateTimeFormatter(thread-safe)를 재사용하고, DDL 판별 시 소문자 변환/trim 복사를 하지 않음
+ * - 실제 실행 SQL(바인딩 값 포함)은 한 줄로 그대로 덧붙임
+ */
+public class P6spyCachedSqlFormatter implements MessageFormattingStrategy {
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yy.MM.dd HH:mm:ss");
+    private static final int MAX_CACHED_SHAPES = 2048; // SQL 형태 수는 유한하지만 만약을 위해 상한
+
+    private static final ConcurrentHashMap<String, String> FORMATTED = new ConcurrentHashMap<>();
+
+    @Override
+    public String formatMessage(int connectionId, String now, long elapsed, String category, String prepared, String sql, String url) {
+        StringBuilder sb = new StringBuilder(64 + (sql == null ? 0 : sql.length() * 2));
+        DATE_FORMAT.formatTo(LocalDateTime.now(), sb);
+        sb.append(" | OperationTime : ").append(elapsed).append("ms");
+
+        if (sql == null || sql.isEmpty()) {
+            return sb.toString();
+        }
+        if (!Category.STATEMENT.getName().equals(category)) {
+            return sb.append(sql).toString();
+        }
+
+        String shape = prepared == null || prepared.isEmpty() ? sql : prepared;
+        sb.append("|\nHeFormatSql(P6Spy sql,Hibernate format):").append(format(shape));
+        if (!shape.equals(sql)) {
+            sb.append("\n-- ").append(sql);
+        }
+        return sb.toString();
+    }
+
+    private static String format(String shape) {
+        String formatted = FORMATTED.get(shape);
+        if (formatted != null) {
+            return formatted;
+        }
+
+        formatted = isDdl(shape) ? FormatStyle.DDL.getFormatter().format(shape) : FormatStyle.BASIC.getFormatter().format(shape);
+        if (FORMATTED.size() < MAX_CACHED_SHAPES) {
+            FORMATTED.putIfAbsent(shape, formatted);
+        }
+        return formatted;
+    }
+
+    // Only format Statement, distinguish DDL And DML
+    static boolean isDdl(String sql) {
+        int start = 0;
+        while (start < sql.length() && Character.isWhitespace(sql.charAt(start))) {
+            start++;
+        }
+        return sql.regionMatches(true, start, "create", 0, 6)
+                || sql.regionMatches(true, start, "alter", 0, 5)
+                || sql.regionMatches(true, start, "comment", 0, 7);
+    }
+}
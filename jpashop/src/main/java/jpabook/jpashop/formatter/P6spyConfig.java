@@ -1,16 +1,34 @@
 package jpabook.jpashop.formatter;
 
 import com.p6spy.engine.spy.P6SpyOptions;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 
 import javax.annotation.PostConstruct;
 
 @Configuration
 public class P6spyConfig {
-    
+
+    private final MeterRegistry registry;
+    private final int asyncQueueCapacity;
+
+    public P6spyConfig(MeterRegistry registry,
+                       @Value("${jpashop.p6spy.async-queue-capacity:8192}") int asyncQueueCapacity) {
+        this.registry = registry;
+        this.asyncQueueCapacity = asyncQueueCapacity;
+    }
+
     @PostConstruct
     public void setLogMessageFormat() {
-        P6SpyOptions.getActiveInstance().setLogMessageFormat(P6spyPrettySqlFormatter.class.getName());
+        AsyncP6spyLogger.start(asyncQueueCapacity);
+        P6SpyOptions.getActiveInstance().setLogMessageFormat(P6spyCachedSqlFormatter.class.getName());
+        P6SpyOptions.getActiveInstance().setAppender(AsyncP6spyLogger.class.getName());
+
+        Gauge.builder("p6spy.log.queue.size", AsyncP6spyLogger::queueSize).register(registry);
+        FunctionCounter.builder("p6spy.log.dropped", AsyncP6spyLogger.class, c -> AsyncP6spyLogger.droppedCount()).register(registry);
     }
-    
-}
\ No newline at end of file
+
+}
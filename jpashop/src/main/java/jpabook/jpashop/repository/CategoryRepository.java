@@ -0,0 +1,111 @@
+package jpabook.jpashop.repository;
+
+import jpabook.jpashop.domain.Category;
+import jpabook.jpashop.domain.CategoryClosure;
+import jpabook.jpashop.domain.item.Item;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class CategoryRepository {
+
+    private final EntityManager em;
+
+    /**
+     * 카테고리 저장 + closure 생성 (자기 자신 + 부모의 모든 조상)
+     */
+    public void save(Category category) {
+        em.persist(category);
+        em.persist(new CategoryClosure(category, category, 0));
+
+        if (category.getParent() != null) {
+            for (CategoryClosure ancestor : findAncestors(category.getParent())) {
+                em.persist(new CategoryClosure(ancestor.getAncestor(), category, ancestor.getDepth() + 1));
+            }
+        }
+    }
+
+    public Category findOne(Long id) {
+        return em.find(Category.class, id);
+    }
+
+    // 메뉴용 전체 목록 (id, name, parentId) - 엔티티 대신 값만 조회
+    public List<Object[]> findAllForTree() {
+        return em.createQuery(
+                        "select c.id, c.name, p.id from Category c" +
+                                " left join c.parent p", Object[].class)
+                .getResultList();
+    }
+
+    /**
+     * 하위 트리(자기 자신 포함)에 속한 모든 상품
+     * closure(ancestor_id) -> category_item -> item 조인 한 번으로 조회
+     */
+    public List<Item> findItemsInSubtree(Long categoryId) {
+        return em.createQuery(
+                        "select distinct i from CategoryClosure cc" +
+                                " join cc.descendant c" +
+                                " join c.items i" +
+                                " where cc.ancestor.id = :categoryId" +
+                                " order by i.id", Item.class)
+                .setParameter("categoryId", categoryId)
+                .getResultList();
+    }
+
+    public boolean isDescendant(Category ancestor, Category descendant) {
+        return !em.createQuery(
+                        "select cc.id from CategoryClosure cc" +
+                                " where cc.ancestor = :ancestor and cc.descendant = :descendant", Long.class)
+                .setParameter("ancestor", ancestor)
+                .setParameter("descendant", descendant)
+                .setMaxResults(1)
+                .getResultList()
+                .isEmpty();
+    }
+
+    /**
+     * 하위 트리를 newParent 밑으로 이동
+     * 1. 하위 트리 밖의 조상 -> 하위 트리 연결 삭제
+     * 2. newParent의 조상(자기 자신 포함) x 하위 트리 노드 연결 생성
+     */
+    public void moveSubtree(Category category, Category newParent) {
+        em.createQuery(
+                        "delete from CategoryClosure cc" +
+                                " where cc.descendant.id in (select s.descendant.id from CategoryClosure s where s.ancestor = :category)" +
+                                " and cc.ancestor.id not in (select s.descendant.id from CategoryClosure s where s.ancestor = :category)")
+                .setParameter("category", category)
+                .executeUpdate();
+
+        if (newParent == null) {
+            return;
+        }
+
+        List<CategoryClosure> subtree = em.createQuery(
+                        "select cc from CategoryClosure cc" +
+                                " join fetch cc.descendant" +
+                                " where cc.ancestor = :category", CategoryClosure.class)
+                .setParameter("category", category)
+                .getResultList();
+
+        for (CategoryClosure ancestor : findAncestors(newParent)) {
+            for (CategoryClosure descendant : subtree) {
+                em.persist(new CategoryClosure(ancestor.getAncestor(), descendant.getDescendant(),
+                        ancestor.getDepth() + descendant.getDepth() + 1));
+            }
+        }
+    }
+
+    // 자기 자신(depth 0)을 포함한 모든 조상
+    private List<CategoryClosure> findAncestors(Category category) {
+        return em.createQuery(
+                        "select cc from CategoryClosure cc" +
+                                " join fetch cc.ancestor" +
+                                " where cc.descendant = :category", CategoryClosure.class)
+                .setParameter("category", category)
+                .getResultList();
+    }
+}
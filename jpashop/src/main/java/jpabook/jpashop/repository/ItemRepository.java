@@ -1,17 +1,29 @@
 package jpabook.jpashop.repository;
 
+import jpabook.jpashop.config.HibernateCacheConfig;
 import jpabook.jpashop.domain.item.Item;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.annotations.QueryHints;
+import org.hibernate.query.NativeQuery;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import javax.persistence.Cache;
 import javax.persistence.EntityManager;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 @RequiredArgsConstructor
 public class ItemRepository {
 
+    // 재고 update(native)의 query space: 엔티티 테이블과 겹치지 않아서 하이버네이트가 item region 전체, item 쿼리 캐시를 비우지 않음
+    // (재고만 바뀌고 상품 목록은 그대로이므로 쿼리 캐시의 id 목록은 유효)
+    private static final String STOCK_QUERY_SPACE = "item_stock";
+
     private final EntityManager em;
+    private final TableVersionRegistry tableVersions;
 
     public void save(Item item) {
         if (item.getId() == null) {
@@ -26,7 +38,89 @@ public class ItemRepository {
     }
 
     public List<Item> findAll() {
+        // 쿼리 캐시: item 테이블이 바뀌기 전까지 DB 조회 없이 캐시된 id 목록 + 엔티티 캐시로 응답
         return em.createQuery("select i from Item i", Item.class)
+                .setHint(QueryHints.CACHEABLE, true)
+                .setHint(QueryHints.CACHE_REGION, HibernateCacheConfig.ITEM_QUERY_REGION)
+                .getResultList();
+    }
+
+    // 대량 적재(SeedGenerator.Catalog)용: 주문에 넣을 상품 (id, price)
+    public List<Object[]> findIdAndPrices() {
+        return em.createQuery("select i.id, i.price from Item i order by i.id", Object[].class)
                 .getResultList();
     }
+
+    public List<Item> findAllById(Collection<Long> ids) {
+        return em.createQuery("select i from Item i where i.id in :ids", Item.class)
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+
+    /**
+     * 재고 차감을 조건부 update 한 번으로 처리 (동시 주문 시 lost update 방지, 락 대기 최소화)
+     * 재고가 부족하면 갱신된 row가 없으므로 false
+     * 벌크 연산이므로 영속성 컨텍스트의 Item.stockQuantity는 갱신되지 않음, 2차 캐시는 이 상품만 제거 (evictAfterUpdate)
+     * 엔티티 이벤트가 없으므로 TableVersionRegistry 의 Item 버전은 직접 올림
+     */
+    public boolean removeStock(Long itemId, int quantity) {
+        int updated = em.createNativeQuery(
+                        "update item set stock_quantity = stock_quantity - :quantity" +
+                                " where item_id = :itemId and stock_quantity >= :quantity")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(STOCK_QUERY_SPACE)
+                .setParameter("quantity", quantity)
+                .setParameter("itemId", itemId)
+                .executeUpdate();
+        evictAfterUpdate(itemId);
+        tableVersions.bumpAfterCommit(Item.class);
+        return updated == 1;
+    }
+
+    /**
+     * 일괄 취소한 주문들의 주문 수량을 상품별로 합쳐서 재고 원복 (주문상품 수와 상관없이 update 1번)
+     * HQL update 의 상관 서브쿼리(where oi.item = i and oi.order.id in ...)는 H2 가 상품마다 order_id 목록을 다시 찾아서
+     * 주문 수의 제곱으로 느려지므로, 상품별 합계를 한 번 group by 하고 merge 로 반영 (native, 2차 캐시 item region 은 하이버네이트가 비움)
+     * @return 재고가 바뀐 상품 수
+     */
+    public int addStockOfOrders(Collection<Long> orderIds) {
+        tableVersions.bumpAfterCommit(Item.class);
+        return em.createNativeQuery(
+                        "merge into item i using (" +
+                                " select oi.item_id, sum(oi.count) as quantity from order_item oi where oi.order_id in :orderIds group by oi.item_id" +
+                                ") s on (i.item_id = s.item_id)" +
+                                " when matched then update set i.stock_quantity = i.stock_quantity + s.quantity")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(Item.class)
+                .setParameterList("orderIds", orderIds)
+                .executeUpdate();
+    }
+
+    public void addStock(Long itemId, int quantity) {
+        em.createNativeQuery("update item set stock_quantity = stock_quantity + :quantity where item_id = :itemId")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(STOCK_QUERY_SPACE)
+                .setParameter("quantity", quantity)
+                .setParameter("itemId", itemId)
+                .executeUpdate();
+        evictAfterUpdate(itemId);
+        tableVersions.bumpAfterCommit(Item.class);
+    }
+
+    /**
+     * 재고를 바꾼 상품만 2차 캐시에서 제거 (지금, 트랜잭션이 끝난 후 한 번 더)
+     * 커밋 전에 다른 트랜잭션이 이전 재고를 다시 캐시에 넣을 수 있으므로 끝난 후에도 제거
+     */
+    private void evictAfterUpdate(Long itemId) {
+        Cache cache = em.getEntityManagerFactory().getCache();
+        cache.evict(Item.class, itemId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.evict(Item.class, itemId);
+                }
+            });
+        }
+    }
 }
@@ -0,0 +1,266 @@
+package jpabook.jpashop.repository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Predicate;
+
+/**
+ * 회원 이름 중복 검사용 메모리 Bloom 필터
+ * 필터에 없는 이름은 확실히 없는 이름이므로 DB 조회 없이 가입 진행 (실제 중복 방지는 member.name unique 제약)
+ * 필터에 있다고 나오면 expected-fpp 확률로 틀릴 수 있으므로 DB 로 확인
+ * - 시작할 때(ApplicationReadyEvent) DB에서 한 번 읽고, 이후 추가/변경된 이름은 MemberNameFilterListener 가 커밋 후 반영
+ * - 지워진 이름은 빼지 못함 (오탐만 늘어남), JPA 를 거치지 않은 insert 는 put() 또는 rebuild() 로 반영해야 함
+ */
+@Component
+public class MemberNameFilter {
+
+    private static final int LOAD_CHUNK = 10_000;
+
+    private final MemberRepository memberRepository;
+    private final TransactionTemplate readOnlyTx;
+    private final boolean enabled;
+    private final long numBits;
+    private final int numHashes;
+
+    private volatile Bits active; // null: 로딩 전 (항상 DB 로 확인)
+    private volatile Bits building; // rebuild 중인 필터 (읽는 동안 커밋된 이름도 함께 넣음)
+
+    private final Counter absent;
+    private final Counter maybe;
+    private final Counter falsePositive;
+
+    /**
+     * @param expectedNames 예상 회원 수 (넘어서면 오탐률이 fpp 보다 커짐)
+     * @param fpp 예상 회원 수일 때 목표 오탐률 -> 비트 수 m = -n ln(p) / (ln 2)^2, 해시 수 k = m/n ln 2
+     */
+    public MemberNameFilter(MemberRepository memberRepository, PlatformTransactionManager transactionManager, MeterRegistry registry,
+                            @Value("${jpashop.member-name-filter.enabled:true}") boolean enabled,
+                            @Value("${jpashop.member-name-filter.expected-names:1000000}") long expectedNames,
+                            @Value("${jpashop.member-name-filter.fpp:0.01}") double fpp) {
+        if (expectedNames <= 0 || fpp <= 0 || fpp >= 1) {
+            throw new IllegalArgumentException("expected-names > 0, 0 < fpp < 1 이어야 합니다.");
+        }
+        this.memberRepository = memberRepository;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.enabled = enabled;
+        this.numBits = Math.max(64, (long) Math.ceil(-expectedNames * Math.log(fpp) / (Math.log(2) * Math.log(2))));
+        this.numHashes = Math.max(1, (int) Math.round((double) numBits / expectedNames * Math.log(2)));
+
+        this.absent = checks(registry, "absent");
+        this.maybe = checks(registry, "maybe");
+        this.falsePositive = checks(registry, "false_positive");
+        Gauge.builder("jpashop.member.name_filter.memory", this, f -> f.enabled ? f.numBits / 8.0 : 0)
+                .description("Bloom 필터 비트 배열 크기")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("jpashop.member.name_filter.names", this, f -> f.active == null ? 0 : f.active.names.get())
+                .description("필터에 넣은 이름 수 (새 비트를 하나 이상 켠 이름)")
+                .register(registry);
+        Gauge.builder("jpashop.member.name_filter.fpp", this, MemberNameFilter::estimatedFpp)
+                .description("현재 채워진 비트 비율로 추정한 오탐률")
+                .register(registry);
+    }
+
+    private static Counter checks(MeterRegistry registry, String result) {
+        return Counter.builder("jpashop.member.name_filter.checks")
+                .description("중복 검사 결과 (absent: DB 조회 생략, maybe: DB 조회, false_positive: DB 조회했지만 없던 이름)")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuild();
+    }
+
+    /**
+     * 이름이 이미 있는지: 필터에 없으면 false (DB 조회 안 함), 있을 수도 있으면 database 로 확인
+     */
+    public boolean exists(String name, Predicate<String> database) {
+        Bits bits = active;
+        if (bits == null) {
+            return database.test(name);
+        }
+        if (!bits.mightContain(name)) {
+            absent.increment();
+            return false;
+        }
+        maybe.increment();
+        boolean exists = database.test(name);
+        if (!exists) {
+            falsePositive.increment();
+        }
+        return exists;
+    }
+
+    /**
+     * DB 에서 전체 회원 이름을 다시 읽어 필터 교체 (지워진 이름 정리, JPA 를 거치지 않은 insert 반영)
+     * 읽는 동안 커밋된 이름은 put() 이 새 필터에도 넣음
+     * @return 필터에 넣은 회원 수 (필터를 쓰지 않으면 0)
+     */
+    public synchronized int rebuild() {
+        if (!enabled) {
+            return 0;
+        }
+        Bits loaded = new Bits(numBits, numHashes);
+        building = loaded;
+        int count = 0;
+        try {
+            Long lastId = 0L;
+            while (lastId != null) {
+                Long after = lastId;
+                List<Object[]> rows = readOnlyTx.execute(status -> memberRepository.findIdAndNamesAfter(after, LOAD_CHUNK));
+                rows.forEach(row -> loaded.put((String) row[1]));
+                count += rows.size();
+                lastId = rows.size() < LOAD_CHUNK ? null : (Long) rows.get(rows.size() - 1)[0];
+            }
+            active = loaded;
+        } finally {
+            building = null; // 읽다가 실패하면 기존 필터 유지
+        }
+        return count;
+    }
+
+    /**
+     * 이름 추가 (지금 바로, 커밋된 뒤에 호출해야 함)
+     */
+    public void put(String name) {
+        if (!enabled || name == null) {
+            return;
+        }
+        Bits bits = active;
+        if (bits != null) {
+            bits.put(name);
+        }
+        Bits next = building;
+        if (next != null) {
+            next.put(name);
+        }
+    }
+
+    /**
+     * 현재 트랜잭션이 커밋되면 추가 (롤백되면 추가 안 함, 트랜잭션 밖이면 바로 추가)
+     * 커밋 전에는 다른 트랜잭션이 같은 이름으로 가입해도 unique 제약이 막음
+     */
+    public void putAfterCommit(String name) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            put(name);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                put(name);
+            }
+        });
+    }
+
+    public long getNumBits() {
+        return numBits;
+    }
+
+    public int getNumHashes() {
+        return numHashes;
+    }
+
+    // (켜진 비트 비율)^k
+    public double estimatedFpp() {
+        Bits bits = active;
+        return bits == null ? 0 : Math.pow((double) bits.setBits.get() / numBits, numHashes);
+    }
+
+    /**
+     * 비트 배열 (AtomicLongArray 라 put/mightContain 동시 호출 가능)
+     * 해시 k 개는 64비트 해시 2개로 만듦: h1 + i * h2 (Kirsch-Mitzenmacher)
+     */
+    static final class Bits {
+
+        private final AtomicLongArray words;
+        private final long numBits;
+        private final int numHashes;
+        private final AtomicLong setBits = new AtomicLong();
+        private final AtomicLong names = new AtomicLong();
+
+        Bits(long numBits, int numHashes) {
+            this.words = new AtomicLongArray((int) ((numBits + 63) >>> 6));
+            this.numBits = numBits;
+            this.numHashes = numHashes;
+        }
+
+        void put(String name) {
+            long h1 = hash(name);
+            long h2 = fmix64(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+            boolean changed = false;
+            for (int i = 0; i < numHashes; i++) {
+                changed |= set(Math.floorMod(h1 + i * h2, numBits));
+            }
+            if (changed) {
+                names.incrementAndGet();
+            }
+        }
+
+        boolean mightContain(String name) {
+            long h1 = hash(name);
+            long h2 = fmix64(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+            for (int i = 0; i < numHashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, numBits);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean set(long bit) {
+            int index = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            while (true) {
+                long word = words.get(index);
+                if ((word & mask) != 0) {
+                    return false;
+                }
+                if (words.compareAndSet(index, word, word | mask)) {
+                    setBits.incrementAndGet();
+                    return true;
+                }
+            }
+        }
+
+        // FNV-1a (UTF-8) + murmur3 fmix64 로 비트 섞기
+        private static long hash(String name) {
+            long h = 0xCBF29CE484222325L;
+            for (byte b : name.getBytes(StandardCharsets.UTF_8)) {
+                h ^= b & 0xFF;
+                h *= 0x100000001B3L;
+            }
+            return fmix64(h);
+        }
+
+        private static long fmix64(long h) {
+            h ^= h >>> 33;
+            h *= 0xFF51AFD7ED558CCDL;
+            h ^= h >>> 33;
+            h *= 0xC4CEB93FE1A85EC3L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
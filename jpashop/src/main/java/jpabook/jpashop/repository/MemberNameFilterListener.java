@@ -0,0 +1,26 @@
+package jpabook.jpashop.repository;
+
+import jpabook.jpashop.domain.Member;
+import org.springframework.beans.factory.ObjectProvider;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostUpdate;
+
+/**
+ * Member 추가, 이름 변경 -> MemberNameFilter 반영 (커밋 후)
+ * 이전 이름은 필터에서 빼지 못하고 남음 (오탐만 늘어남)
+ */
+public class MemberNameFilterListener {
+
+    private final ObjectProvider<MemberNameFilter> memberNameFilter;
+
+    public MemberNameFilterListener(ObjectProvider<MemberNameFilter> memberNameFilter) {
+        this.memberNameFilter = memberNameFilter;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void afterSave(Member member) {
+        memberNameFilter.getObject().putAfterCommit(member.getName());
+    }
+}
@@ -0,0 +1,291 @@
+package jpabook.jpashop.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * 회원 이름 부분 검색용 메모리 색인 (trigram 역색인)
+ * like '%name%' 는 인덱스를 못 타서 member 전체를 읽으므로, 이름의 3글자 조각 -> 회원 id 목록으로 후보를 찾고
+ * 실제 이름에 포함되는지 확인한 id 만 돌려줌 (주문 검색에서 member_id in (...) 조건으로 사용)
+ * - 시작할 때(ApplicationReadyEvent) DB에서 한 번 읽고, 이후 변경은 MemberNameIndexListener 가 커밋 후 반영
+ * - JPA 를 거치지 않은 변경(벌크 update, JDBC insert)은 rebuild() 로 다시 읽어야 함
+ */
+@Component
+public class MemberNameIndex {
+
+    private static final int GRAM = 3;
+    private static final int LOAD_CHUNK = 10_000;
+
+    private final MemberRepository memberRepository;
+    private final TransactionTemplate readOnlyTx;
+    private final boolean enabled;
+    private final int maxCandidates;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Trigrams trigrams; // null: 로딩 전 (검색은 like 로 처리)
+    private List<Consumer<Trigrams>> pending; // rebuild 중에 커밋된 변경 (새 색인에 다시 반영)
+
+    public MemberNameIndex(MemberRepository memberRepository, PlatformTransactionManager transactionManager,
+                           @Value("${jpashop.member-name-index.enabled:true}") boolean enabled,
+                           @Value("${jpashop.member-name-index.max-candidates:1000}") int maxCandidates) {
+        this.memberRepository = memberRepository;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.enabled = enabled;
+        this.maxCandidates = maxCandidates;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuild();
+    }
+
+    /**
+     * 이름에 part 가 포함된 회원 id 목록
+     * 색인으로 답할 수 없으면 empty -> 호출측에서 like 로 조회
+     * (로딩 전, 3글자 미만, 결과가 max-candidates 초과, 현재 트랜잭션에 아직 커밋 안 된 회원 변경이 있을 때)
+     */
+    public Optional<List<Long>> findMemberIds(String part) {
+        if (part.length() < GRAM || TransactionSynchronizationManager.hasResource(this)) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            return trigrams == null ? Optional.empty() : Optional.ofNullable(trigrams.find(part, maxCandidates));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * DB 에서 전체 회원 이름을 다시 읽어 색인 교체
+     * 읽는 동안 커밋된 변경은 모아뒀다가 교체 직전에 새 색인에 다시 반영 (put, remove 는 여러 번 반영해도 결과가 같음)
+     * @return 색인된 회원 수 (색인을 쓰지 않으면 0)
+     */
+    public synchronized int rebuild() {
+        if (!enabled) {
+            return 0;
+        }
+        lock.writeLock().lock();
+        try {
+            pending = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Trigrams loaded = null;
+        try {
+            loaded = load(new Trigrams());
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (loaded != null) { // 읽다가 실패하면 기존 색인 유지
+                    for (Consumer<Trigrams> change : pending) {
+                        change.accept(loaded);
+                    }
+                    trigrams = loaded;
+                }
+                pending = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        return loaded.size();
+    }
+
+    private Trigrams load(Trigrams target) {
+        Long lastId = 0L;
+        while (lastId != null) {
+            Long after = lastId;
+            lastId = readOnlyTx.execute(status -> {
+                List<Object[]> rows = memberRepository.findIdAndNamesAfter(after, LOAD_CHUNK);
+                rows.forEach(row -> target.put((Long) row[0], (String) row[1]));
+                return rows.size() < LOAD_CHUNK ? null : (Long) rows.get(rows.size() - 1)[0];
+            });
+        }
+        return target;
+    }
+
+    public void putAfterCommit(Long id, String name) {
+        afterCommit(t -> t.put(id, name));
+    }
+
+    public void removeAfterCommit(Long id) {
+        afterCommit(t -> t.remove(id));
+    }
+
+    /**
+     * 현재 트랜잭션이 커밋되면 색인에 반영 (롤백되면 반영 안 함, 트랜잭션 밖이면 바로 반영)
+     * 트랜잭션 동안 변경 목록을 트랜잭션 리소스로 들고 있음 -> 같은 트랜잭션의 검색은 like 로 (자기가 쓴 회원도 보이도록)
+     */
+    @SuppressWarnings("unchecked")
+    private void afterCommit(Consumer<Trigrams> change) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(change);
+            return;
+        }
+        List<Consumer<Trigrams>> changes = (List<Consumer<Trigrams>>) TransactionSynchronizationManager.getResource(this);
+        if (changes == null) {
+            List<Consumer<Trigrams>> registered = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, registered);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    registered.forEach(MemberNameIndex.this::apply);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(MemberNameIndex.this);
+                }
+            });
+            changes = registered;
+        }
+        changes.add(change);
+    }
+
+    private void apply(Consumer<Trigrams> change) {
+        lock.writeLock().lock();
+        try {
+            if (trigrams != null) {
+                change.accept(trigrams);
+            }
+            if (pending != null) {
+                pending.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 이름 원본(id -> name)과 trigram -> 정렬된 id 목록
+     * 이름 원본은 후보 확인(조각이 떨어져 있어도 후보가 됨)과 이름 변경 시 이전 조각 제거에 사용
+     */
+    static final class Trigrams {
+
+        private final Map<Long, String> names = new HashMap<>();
+        private final Map<String, IdList> postings = new HashMap<>();
+
+        int size() {
+            return names.size();
+        }
+
+        void put(Long id, String name) {
+            if (name == null) {
+                remove(id);
+                return;
+            }
+            String old = names.put(id, name);
+            if (name.equals(old)) {
+                return;
+            }
+            if (old != null) {
+                removePostings(id, old);
+            }
+            for (String gram : grams(name)) {
+                postings.computeIfAbsent(gram, g -> new IdList()).add(id);
+            }
+        }
+
+        void remove(Long id) {
+            String old = names.remove(id);
+            if (old != null) {
+                removePostings(id, old);
+            }
+        }
+
+        /**
+         * @return part 를 포함하는 회원 id (id 순), limit 초과면 null
+         */
+        List<Long> find(String part, int limit) {
+            // 가장 짧은 목록만 훑고 나머지 조건은 이름 원본으로 확인
+            IdList smallest = null;
+            for (String gram : grams(part)) {
+                IdList ids = postings.get(gram);
+                if (ids == null) {
+                    return Collections.emptyList();
+                }
+                if (smallest == null || ids.size < smallest.size) {
+                    smallest = ids;
+                }
+            }
+
+            List<Long> result = new ArrayList<>();
+            for (int i = 0; i < smallest.size; i++) {
+                long id = smallest.ids[i];
+                if (names.get(id).contains(part)) {
+                    if (result.size() == limit) {
+                        return null;
+                    }
+                    result.add(id);
+                }
+            }
+            return result;
+        }
+
+        private void removePostings(Long id, String name) {
+            for (String gram : grams(name)) {
+                IdList ids = postings.get(gram);
+                if (ids.remove(id) && ids.size == 0) {
+                    postings.remove(gram);
+                }
+            }
+        }
+
+        private static Set<String> grams(String s) {
+            Set<String> grams = new HashSet<>();
+            for (int i = 0; i + GRAM <= s.length(); i++) {
+                grams.add(s.substring(i, i + GRAM));
+            }
+            return grams;
+        }
+    }
+
+    /**
+     * 정렬된 long 배열 (id 는 시퀀스로 증가하므로 대부분 끝에 추가)
+     */
+    static final class IdList {
+
+        private long[] ids = new long[4];
+        private int size;
+
+        void add(long id) {
+            int i = Arrays.binarySearch(ids, 0, size, id);
+            if (i >= 0) {
+                return;
+            }
+            int at = -i - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, at, ids, at + 1, size - at);
+            ids[at] = id;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int i = Arrays.binarySearch(ids, 0, size, id);
+            if (i < 0) {
+                return false;
+            }
+            System.arraycopy(ids, i + 1, ids, i, size - i - 1);
+            size--;
+            return true;
+        }
+    }
+}
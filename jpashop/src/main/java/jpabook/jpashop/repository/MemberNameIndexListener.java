@@ -0,0 +1,32 @@
+package jpabook.jpashop.repository;
+
+import jpabook.jpashop.domain.Member;
+import org.springframework.beans.factory.ObjectProvider;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * Member 변경 -> MemberNameIndex 반영 (커밋 후)
+ * 하이버네이트가 SpringBeanContainer 로 생성 (EntityManagerFactory 생성 중이라 색인은 처음 쓸 때 조회)
+ */
+public class MemberNameIndexListener {
+
+    private final ObjectProvider<MemberNameIndex> memberNameIndex;
+
+    public MemberNameIndexListener(ObjectProvider<MemberNameIndex> memberNameIndex) {
+        this.memberNameIndex = memberNameIndex;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void afterSave(Member member) {
+        memberNameIndex.getObject().putAfterCommit(member.getId(), member.getName());
+    }
+
+    @PostRemove
+    public void afterRemove(Member member) {
+        memberNameIndex.getObject().removeAfterCommit(member.getId());
+    }
+}
@@ -1,22 +1,35 @@
 package jpabook.jpashop.repository;
 
 import jpabook.jpashop.domain.Member;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.query.NativeQuery;
 import org.springframework.stereotype.Repository;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
+@RequiredArgsConstructor
 public class MemberRepository {
 
     @PersistenceContext
     private EntityManager em;
 
+    private final TableVersionRegistry tableVersions;
+
     public void save(Member member) {
         em.persist(member);
     }
 
+    // insert 를 바로 실행 (unique 제약 위반을 커밋이 아니라 여기서 DataIntegrityViolationException 으로)
+    public void saveAndFlush(Member member) {
+        em.persist(member);
+        em.flush();
+    }
+
     public Member findOne(Long id) {
         return em.find(Member.class, id);
     }
@@ -26,6 +39,71 @@ public class MemberRepository {
                 .getResultList();
     }
 
+    public List<Member> findAllById(Collection<Long> ids) {
+        return em.createQuery("select m from Member m where m.id in :ids", Member.class)
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+
+    // 주문 생성: 회원 주문 요약을 DB 에서 원자적으로 증가 (orderDate 가 더 늦을 때만 마지막 주문 시간 변경)
+    public int addOrderSummary(Long memberId, int orders, long spend, LocalDateTime orderDate) {
+        tableVersions.bumpAfterCommit(Member.class);
+        return em.createNativeQuery(
+                        "update member set order_count = order_count + :orders, lifetime_spend = lifetime_spend + :spend," +
+                                " last_order_date = greatest(coalesce(last_order_date, :orderDate), :orderDate)" +
+                                " where member_id = :memberId")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(Member.class)
+                .setParameter("orders", orders)
+                .setParameter("spend", spend)
+                .setParameter("orderDate", orderDate)
+                .setParameter("memberId", memberId)
+                .executeUpdate();
+    }
+
+    // 주문 취소: 회원 주문 요약에서 원자적으로 제외 (마지막 주문 시간은 유지)
+    public int cancelOrderSummary(Long memberId, int totalPrice) {
+        tableVersions.bumpAfterCommit(Member.class);
+        return em.createNativeQuery(
+                        "update member set order_count = order_count - 1, lifetime_spend = lifetime_spend - :spend" +
+                                " where member_id = :memberId")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(Member.class)
+                .setParameter("spend", totalPrice)
+                .setParameter("memberId", memberId)
+                .executeUpdate();
+    }
+
+    // 일괄 취소한 주문들을 회원별로 합쳐서 주문 요약에서 제외 (cancelOrderSummary 와 같음), ItemRepository.addStockOfOrders 처럼 group by + merge
+    public int cancelOrderSummaries(Collection<Long> orderIds) {
+        tableVersions.bumpAfterCommit(Member.class);
+        return em.createNativeQuery(
+                        "merge into member m using (" +
+                                " select o.member_id, count(*) as orders, sum(o.total_price) as spend from orders o where o.order_id in :orderIds group by o.member_id" +
+                                ") s on (m.member_id = s.member_id)" +
+                                " when matched then update set m.order_count = m.order_count - s.orders, m.lifetime_spend = m.lifetime_spend - s.spend")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(Member.class)
+                .setParameterList("orderIds", orderIds)
+                .executeUpdate();
+    }
+
+    // MemberNameIndex 로딩용: id 순으로 lastId 다음부터 limit 건 (id, name)
+    public List<Object[]> findIdAndNamesAfter(Long lastId, int limit) {
+        return em.createQuery("select m.id, m.name from Member m where m.id > :lastId order by m.id", Object[].class)
+                .setParameter("lastId", lastId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    public boolean existsByName(String name) {
+        return !em.createQuery("select m.id from Member m where m.name = :name", Long.class)
+                .setParameter("name", name)
+                .setMaxResults(1)
+                .getResultList()
+                .isEmpty();
+    }
+
     public List<Member> findByName(String name) {
         return em.createQuery("select m from Member m where m.name = :name", Member.class)
                 .setParameter("name", name)
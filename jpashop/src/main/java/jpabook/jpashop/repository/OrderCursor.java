@@ -0,0 +1,50 @@
+package jpabook.jpashop.repository;
+
+import jpabook.jpashop.domain.Order;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * keyset(seek) 페이징 커서
+ * 마지막으로 조회한 주문의 (orderDate, order_id)를 기억했다가 그 다음 행부터 조회
+ * -> offset 페이징처럼 앞 페이지 행들을 읽고 버리지 않으므로 몇 번째 페이지든 비용이 같음
+ */
+@Getter
+public class OrderCursor {
+
+    private static final char SEPARATOR = '|';
+
+    private final LocalDateTime orderDate;
+    private final Long orderId;
+
+    public OrderCursor(LocalDateTime orderDate, Long orderId) {
+        this.orderDate = orderDate;
+        this.orderId = orderId;
+    }
+
+    public static OrderCursor of(Order order) {
+        return new OrderCursor(order.getOrderDate(), order.getId());
+    }
+
+    /**
+     * 클라이언트에 넘겨줄 불투명(opaque) 토큰
+     */
+    public String encode() {
+        String raw = orderDate.toString() + SEPARATOR + orderId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static OrderCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int idx = raw.lastIndexOf(SEPARATOR);
+            return new OrderCursor(LocalDateTime.parse(raw.substring(0, idx)), Long.valueOf(raw.substring(idx + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("잘못된 커서입니다.", e);
+        }
+    }
+}
@@ -4,15 +4,19 @@ import com.querydsl.core.types.dsl.BooleanExpression;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import jpabook.jpashop.domain.*;
 import jpabook.jpashop.domain.Order;
+import jpabook.jpashop.domain.item.Item;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
 import org.springframework.stereotype.Repository;
 import org.springframework.util.StringUtils;
 
 import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
-import javax.persistence.criteria.*;
-import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
 import static org.springframework.util.StringUtils.hasText;
 
@@ -21,6 +25,8 @@ import static org.springframework.util.StringUtils.hasText;
 public class OrderRepository {
 
     private final EntityManager em;
+    private final MemberNameIndex memberNameIndex;
+    private final TableVersionRegistry tableVersions;
 
     public void save(Order order) {
         em.persist(order);
@@ -43,33 +49,49 @@ public class OrderRepository {
                 .getResultList();
     }
 
-    // JPA Criteria로 동적쿼리 생성 (비추)
+    // 검색 조건 조합(상태 유무 x 이름 유무 = 4가지)별 named query 사용
+    // 매번 Criteria 트리를 만들고 JPQL로 렌더링하는 대신, 시작할 때 파싱된 쿼리 플랜을 재사용하고 파라미터만 바인딩
+    // 회원 이름은 MemberNameIndex 로 회원 id 를 먼저 찾아 in 조건으로 (색인으로 못 찾으면 like)
     public List<Order> findAllByCriteria(OrderSearch orderSearch) {
-        CriteriaBuilder cb = em.getCriteriaBuilder();
-        CriteriaQuery<Order> cq = cb.createQuery(Order.class);
-        Root<Order> o = cq.from(Order.class);
-        Join<Order, Member> m = o.join("member", JoinType.INNER); //회원과 조인
+        boolean hasStatus = orderSearch.getOrderStatus() != null;
+        boolean hasName = StringUtils.hasText(orderSearch.getMemberName());
 
-        List<Predicate> criteria = new ArrayList<>();
+        Optional<List<Long>> memberIds = hasName ? memberNameIndex.findMemberIds(orderSearch.getMemberName()) : Optional.empty();
+        if (memberIds.isPresent() && memberIds.get().isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        String queryName;
+        if (memberIds.isPresent()) {
+            queryName = hasStatus ? Order.SEARCH_BY_STATUS_AND_MEMBER_IDS : Order.SEARCH_BY_MEMBER_IDS;
+        } else {
+            queryName = hasStatus
+                    ? (hasName ? Order.SEARCH_BY_STATUS_AND_NAME : Order.SEARCH_BY_STATUS)
+                    : (hasName ? Order.SEARCH_BY_NAME : Order.SEARCH_ALL);
+        }
+        TypedQuery<Order> query = em.createNamedQuery(queryName, Order.class)
+                .setMaxResults(1000); //최대 1000건
 
         //주문 상태 검색
-        if (orderSearch.getOrderStatus() != null) {
-            Predicate status = cb.equal(o.get("status"), orderSearch.getOrderStatus());
-            criteria.add(status);
+        if (hasStatus) {
+            query.setParameter("status", orderSearch.getOrderStatus());
         }
 
         //회원 이름 검색
-        if (StringUtils.hasText(orderSearch.getMemberName())) {
-            Predicate name = cb.like(m.<String>get("name"), "%" + orderSearch.getMemberName() + "%");
-            criteria.add(name);
+        if (memberIds.isPresent()) {
+            query.setParameter("memberIds", memberIds.get());
+        } else if (hasName) {
+            query.setParameter("name", containsPattern(orderSearch.getMemberName()));
         }
 
-        cq.where(cb.and(criteria.toArray(new Predicate[criteria.size()])));
-        TypedQuery<Order> query = em.createQuery(cq).setMaxResults(1000); //최대 1000건
-
         return query.getResultList();
     }
 
+    // 부분 일치 like 패턴: 검색어의 \, %, _ 는 문자 그대로 (named query 의 escape '\')
+    static String containsPattern(String part) {
+        return "%" + part.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+
     public List<Order> findAllWithMemberDelivery() {
         return em.createQuery(
                         "select o from Order o " +
@@ -100,6 +122,126 @@ public class OrderRepository {
                 .getResultList();
     }
 
+    // keyset 페이징: offset 대신 (orderDate, order_id) 인덱스를 타고 커서 다음 행부터 limit 건만 조회
+    // 컬렉션(orderItems)은 그대로 @BatchSize로 in 쿼리 조회
+    public List<Order> findAllWithMemberDeliveryAfter(OrderCursor cursor, int limit) {
+        String where = cursor == null ? "" :
+                " where o.orderDate > :orderDate" +
+                " or (o.orderDate = :orderDate and o.id > :orderId)";
+
+        TypedQuery<Order> query = em.createQuery(
+                        "select o from Order o" +
+                                " join fetch o.member m" +
+                                " join fetch o.delivery d" +
+                                where +
+                                " order by o.orderDate, o.id", Order.class)
+                .setMaxResults(limit);
+
+        if (cursor != null) {
+            query.setParameter("orderDate", cursor.getOrderDate())
+                    .setParameter("orderId", cursor.getOrderId());
+        }
+        return query.getResultList();
+    }
+
+    // OrderTotalPriceReconciler 용: id 순으로 lastId 다음부터 limit 건의 주문 id
+    public List<Long> findIdsAfter(Long lastId, int limit) {
+        return em.createQuery("select o.id from Order o where o.id > :lastId order by o.id", Long.class)
+                .setParameter("lastId", lastId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    // [주문 id, totalPrice 컬럼, 주문상품 가격 합계] (id 범위로 끊어서 집계)
+    public List<Object[]> findTotalPriceChecks(Long fromId, Long toId) {
+        return em.createQuery(
+                        "select o.id, o.totalPrice, coalesce(sum(oi.orderPrice * oi.count), 0)" +
+                                " from Order o left join o.orderItems oi" +
+                                " where o.id between :fromId and :toId" +
+                                " group by o.id, o.totalPrice" +
+                                " order by o.id", Object[].class)
+                .setParameter("fromId", fromId)
+                .setParameter("toId", toId)
+                .getResultList();
+    }
+
+    public void updateTotalPrice(Long orderId, int totalPrice) {
+        em.createQuery("update Order o set o.totalPrice = :totalPrice where o.id = :orderId")
+                .setParameter("totalPrice", totalPrice)
+                .setParameter("orderId", orderId)
+                .executeUpdate();
+        tableVersions.bumpAfterCommit(Order.class);
+    }
+
+    // 일괄 취소 조건: 주문 상태이고 배송 완료 전 (Order.cancelReserved 와 같음, 배송 상태가 없으면 취소 가능)
+    private static final String CANCELABLE = "o.status = 'ORDER'" +
+            " and not exists (select d.id from Delivery d where d.id = o.delivery.id and d.status = 'COMPLITE')";
+
+    // 일괄 취소 대상: orderIds 중 취소할 수 있는 주문 id
+    public List<Long> findCancelableIds(Collection<Long> orderIds) {
+        return em.createQuery("select o.id from Order o where o.id in :orderIds and " + CANCELABLE + " order by o.id", Long.class)
+                .setParameter("orderIds", orderIds)
+                .getResultList();
+    }
+
+    // 일괄 취소 대상: itemId 상품을 주문한 주문 중 취소할 수 있는 주문 id (id 순으로 lastId 다음부터 limit 건)
+    public List<Long> findCancelableIdsByItemAfter(Long itemId, Long lastId, int limit) {
+        return em.createQuery(
+                        "select o.id from Order o" +
+                                " where o.id > :lastId" +
+                                " and o.id in (select oi.order.id from OrderItem oi where oi.item.id = :itemId)" +
+                                " and " + CANCELABLE +
+                                " order by o.id", Long.class)
+                .setParameter("itemId", itemId)
+                .setParameter("lastId", lastId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * 주문 상태만 CANCEL 로 (재고, 회원 주문 요약은 ItemRepository.addStockOfOrders, MemberRepository.cancelOrderSummaries)
+     * 조회 후 다른 트랜잭션이 먼저 취소했거나 배송을 완료했으면 그 주문은 갱신되지 않음
+     * @return 취소된 주문 수
+     */
+    public int cancelAll(Collection<Long> orderIds) {
+        tableVersions.bumpAfterCommit(Order.class);
+        return em.createQuery("update Order o set o.status = :cancel where o.id in :orderIds and " + CANCELABLE)
+                .setParameter("cancel", OrderStatus.CANCEL)
+                .setParameter("orderIds", orderIds)
+                .executeUpdate();
+    }
+
+    /**
+     * 벌크 update 로 바뀐 주문(주문상품, 배송은 cascade), 상품, 회원을 영속성 컨텍스트에서 분리 (다음 조회는 DB 에서 다시 읽음)
+     * em.clear() 와 달리 관계없는 엔티티의 변경 내용은 유지, 영속성 컨텍스트가 비어 있으면 상품/회원 id 도 조회 안 함
+     */
+    public void detachOrders(Collection<Long> orderIds) {
+        SessionImplementor session = em.unwrap(SessionImplementor.class);
+        if (session.getPersistenceContext().getNumberOfManagedEntities() == 0) {
+            return;
+        }
+        List<Long> itemIds = em.createQuery("select distinct oi.item.id from OrderItem oi where oi.order.id in :orderIds", Long.class)
+                .setParameter("orderIds", orderIds)
+                .getResultList();
+        List<Long> memberIds = em.createQuery("select distinct o.member.id from Order o where o.id in :orderIds", Long.class)
+                .setParameter("orderIds", orderIds)
+                .getResultList();
+
+        detach(session, Order.class, orderIds);
+        detach(session, Item.class, itemIds);
+        detach(session, Member.class, memberIds);
+    }
+
+    private void detach(SessionImplementor session, Class<?> entityClass, Collection<Long> ids) {
+        EntityPersister persister = session.getFactory().getMetamodel().entityPersister(entityClass);
+        for (Long id : ids) {
+            Object entity = session.getPersistenceContext().getEntity(session.generateEntityKey(id, persister));
+            if (entity != null) {
+                em.detach(entity);
+            }
+        }
+    }
+
     // queryDSL로 동적쿼리 생성 (추천)
     public List<Order> findAll(OrderSearch orderSearch) {
         JPAQueryFactory query = new JPAQueryFactory(em);
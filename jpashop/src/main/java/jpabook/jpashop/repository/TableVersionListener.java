@@ -0,0 +1,67 @@
+package jpabook.jpashop.repository;
+
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.*;
+import org.hibernate.internal.SessionFactoryImpl;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * 엔티티 insert/update/delete 가 커밋되면 TableVersionRegistry 의 루트 엔티티 버전을 올림
+ * 하이버네이트 post-commit 이벤트라 롤백된 변경은 올리지 않음 (JPA 콜백 @PostPersist 등은 flush 시점이라 커밋 여부를 모름)
+ */
+@Component
+public class TableVersionListener implements PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final TableVersionRegistry tableVersions;
+
+    public TableVersionListener(EntityManagerFactory entityManagerFactory, TableVersionRegistry tableVersions) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.tableVersions = tableVersions;
+    }
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImpl.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        tableVersions.bump(event.getPersister().getRootEntityName());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        tableVersions.bump(event.getPersister().getRootEntityName());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        tableVersions.bump(event.getPersister().getRootEntityName());
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return true;
+    }
+}
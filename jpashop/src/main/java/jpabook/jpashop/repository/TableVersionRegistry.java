@@ -0,0 +1,75 @@
+package jpabook.jpashop.repository;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 엔티티(테이블)별 변경 버전: 커밋된 변경이 있을 때마다 1씩 올라감 (HTTP ETag, 응답 캐시 키)
+ * - JPA 로 저장/변경/삭제한 엔티티는 TableVersionListener 가 커밋 후 올림
+ * - 벌크 update, native, JDBC 처럼 엔티티 이벤트가 없는 변경은 bumpAfterCommit()/bump() 를 직접 호출해야 함
+ * - 키는 상속 루트 엔티티 (Book 변경 -> Item)
+ * - 버전은 이 프로세스 메모리에만 있음: 재시작하면 epoch 가 바뀌어 이전 ETag 는 모두 무효, 인스턴스가 여러 대면 다른 인스턴스의 변경은 모름
+ */
+@Component
+public class TableVersionRegistry {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final ConcurrentMap<String, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    public long version(Class<?> entity) {
+        return counter(entity.getName()).get();
+    }
+
+    /**
+     * 엔티티들의 현재 버전으로 만든 강한 ETag ("epoch-v1.v2...", 순서는 entities 순서)
+     * 응답 데이터를 읽기 전에 만들어야 함 (읽는 도중 커밋되면 다음 요청에서 버전이 달라져 다시 만듦)
+     */
+    public String etag(Class<?>... entities) {
+        StringBuilder etag = new StringBuilder(32).append('"').append(epoch);
+        for (int i = 0; i < entities.length; i++) {
+            etag.append(i == 0 ? '-' : '.').append(version(entities[i]));
+        }
+        return etag.append('"').toString();
+    }
+
+    /**
+     * 지금 바로 올림 (커밋된 뒤에 호출해야 함)
+     */
+    public void bump(Class<?>... entities) {
+        for (Class<?> entity : entities) {
+            bump(entity.getName());
+        }
+    }
+
+    // 루트 엔티티 이름 (TableVersionListener)
+    void bump(String rootEntityName) {
+        counter(rootEntityName).incrementAndGet();
+    }
+
+    /**
+     * 현재 트랜잭션이 커밋되면 올림 (롤백되면 그대로, 트랜잭션 밖이면 바로)
+     * 커밋 전에 올리면 다른 요청이 커밋 전 데이터를 새 버전으로 캐시할 수 있음
+     */
+    public void bumpAfterCommit(Class<?>... entities) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bump(entities);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                bump(entities);
+            }
+        });
+    }
+
+    private AtomicLong counter(String entityName) {
+        AtomicLong counter = versions.get(entityName);
+        return counter != null ? counter : versions.computeIfAbsent(entityName, k -> new AtomicLong());
+    }
+}
@@ -0,0 +1,22 @@
+package jpabook.jpashop.repository.order.history;
+
+import jpabook.jpashop.domain.OrderStatus;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class OrderHistoryDTO {
+
+    private Long orderId;
+    private LocalDateTime orderDate;
+    private OrderStatus orderStatus;
+    private int totalPrice;
+
+    public OrderHistoryDTO(Long orderId, LocalDateTime orderDate, OrderStatus orderStatus, int totalPrice) {
+        this.orderId = orderId;
+        this.orderDate = orderDate;
+        this.orderStatus = orderStatus;
+        this.totalPrice = totalPrice;
+    }
+}
@@ -0,0 +1,42 @@
+package jpabook.jpashop.repository.order.history;
+
+import jpabook.jpashop.repository.OrderCursor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import java.util.List;
+
+/**
+ * 회원별 주문 이력 (최근 주문부터)
+ * Member.orders 컬렉션 대신 (member_id, orderDate, order_id) 인덱스를 거꾸로 읽으면서 커서 다음 limit 건만 DTO 로 조회
+ * 총액은 Order.totalPrice 컬럼이므로 주문상품은 읽지 않음
+ */
+@Repository
+@RequiredArgsConstructor
+public class OrderHistoryRepository {
+
+    private final EntityManager em;
+
+    public List<OrderHistoryDTO> findByMemberBefore(Long memberId, OrderCursor cursor, int limit) {
+        String before = cursor == null ? "" :
+                " and (o.orderDate < :orderDate" +
+                " or (o.orderDate = :orderDate and o.id < :orderId))";
+
+        TypedQuery<OrderHistoryDTO> query = em.createQuery(
+                        "select new jpabook.jpashop.repository.order.history.OrderHistoryDTO(o.id, o.orderDate, o.status, o.totalPrice)" +
+                                " from Order o" +
+                                " where o.member.id = :memberId" +
+                                before +
+                                " order by o.orderDate desc, o.id desc", OrderHistoryDTO.class)
+                .setParameter("memberId", memberId)
+                .setMaxResults(limit);
+
+        if (cursor != null) {
+            query.setParameter("orderDate", cursor.getOrderDate())
+                    .setParameter("orderId", cursor.getOrderId());
+        }
+        return query.getResultList();
+    }
+}
@@ -0,0 +1,45 @@
+package jpabook.jpashop.repository.order.query;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * flat row(OrderFlatDTO) -> 주문 트리(OrderQueryDTO + OrderItemQueryDTO) 조립
+ * order id 순으로 정렬된 row를 한 번만 훑으면서 id가 바뀔 때마다 주문 하나를 완성
+ * -> groupingBy 처럼 row마다 key 객체를 만들거나 hash 계산을 하지 않고, 조회 순서도 유지됨
+ */
+public final class OrderFlatAssembler {
+
+    private OrderFlatAssembler() {
+    }
+
+    public static List<OrderQueryDTO> assemble(List<OrderFlatDTO> flats) {
+        List<OrderQueryDTO> result = new ArrayList<>();
+        assemble(flats.iterator(), result::add);
+        return result;
+    }
+
+    public static void assemble(Iterator<OrderFlatDTO> flats, Consumer<OrderQueryDTO> action) {
+        OrderQueryDTO current = null;
+        long currentId = 0;
+
+        while (flats.hasNext()) {
+            OrderFlatDTO f = flats.next();
+            long orderId = f.getOrderId();
+            if (current == null || orderId != currentId) {
+                if (current != null) {
+                    action.accept(current);
+                }
+                current = new OrderQueryDTO(f.getOrderId(), f.getName(), f.getOrderDate(), f.getOrderStatus(), f.getAddress(), f.getTotalPrice(), new ArrayList<>());
+                currentId = orderId;
+            }
+            current.getOrderItems().add(new OrderItemQueryDTO(f.getOrderId(), f.getItemName(), f.getOrderPrice(), f.getCount()));
+        }
+
+        if (current != null) {
+            action.accept(current);
+        }
+    }
+}
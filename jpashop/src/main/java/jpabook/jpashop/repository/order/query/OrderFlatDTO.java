@@ -15,17 +15,19 @@ public class OrderFlatDTO {
     private LocalDateTime orderDate;
     private OrderStatus orderStatus;
     private Address address;
+    private int totalPrice;
 
     private String itemName;
     private int orderPrice;
     private int count;
 
-    public OrderFlatDTO(Long orderId, String name, LocalDateTime orderDate, OrderStatus orderStatus, Address address, String itemName, int orderPrice, int count) {
+    public OrderFlatDTO(Long orderId, String name, LocalDateTime orderDate, OrderStatus orderStatus, Address address, int totalPrice, String itemName, int orderPrice, int count) {
         this.orderId = orderId;
         this.name = name;
         this.orderDate = orderDate;
         this.orderStatus = orderStatus;
         this.address = address;
+        this.totalPrice = totalPrice;
         this.itemName = itemName;
         this.orderPrice = orderPrice;
         this.count = count;
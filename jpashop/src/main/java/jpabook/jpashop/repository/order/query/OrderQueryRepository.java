@@ -1,9 +1,14 @@
 package jpabook.jpashop.repository.order.query;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -12,11 +17,23 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class OrderQueryRepository {
 
+    /**
+     * findAllByDTO_flat 과 같은 row 를 JDBC 로 (컬럼 순서: order_id, member name, order_date, status, city, street, zipcode, total_price, item name, order_price, count)
+     */
+    public static final String FLAT_ROW_SQL =
+            "select o.order_id, m.name, o.order_date, o.status, d.city, d.street, d.zipcode, o.total_price, i.name, oi.order_price, oi.count" +
+                    " from orders o" +
+                    " join member m on m.member_id = o.member_id" +
+                    " join delivery d on d.delivery_id = o.delivery_id" +
+                    " join order_item oi on oi.order_id = o.order_id" +
+                    " join item i on i.item_id = oi.item_id" +
+                    " order by o.order_id";
+
     private final EntityManager em;
 
     private List<OrderQueryDTO> findOrders() {
         return em.createQuery(
-                        "select new jpabook.jpashop.repository.order.query.OrderQueryDTO(o.id, m.name, o.orderDate, o.status, d.address)" +
+                        "select new jpabook.jpashop.repository.order.query.OrderQueryDTO(o.id, m.name, o.orderDate, o.status, d.address, o.totalPrice)" +
                                 " from Order o" +
                                 " join o.member m" +
                                 " join o.delivery d", OrderQueryDTO.class)
@@ -70,14 +87,33 @@ public class OrderQueryRepository {
     }
 
     // 총 쿼리 1번 실행 (DB에서 조회된 대로 DTO에 담기)
+    // OrderFlatAssembler로 한 번에 조립할 수 있도록 order id 순 정렬
     public List<OrderFlatDTO> findAllByDTO_flat() {
         return em.createQuery(
-                "select new jpabook.jpashop.repository.order.query.OrderFlatDTO(o.id, m.name, o.orderDate, o.status, d.address, i.name, oi.orderPrice, oi.count)" +
+                "select new jpabook.jpashop.repository.order.query.OrderFlatDTO(o.id, m.name, o.orderDate, o.status, d.address, o.totalPrice, i.name, oi.orderPrice, oi.count)" +
                         " from Order o" +
                         " join o.member m" +
                         " join o.delivery d" +
                         " join o.orderItems oi" +
-                        " join oi.item i", OrderFlatDTO.class)
+                        " join oi.item i" +
+                        " order by o.id", OrderFlatDTO.class)
                 .getResultList();
     }
+
+    // 총 쿼리 1번 실행 + 전체를 메모리에 올리지 않고 forward-only 커서로 한 행씩 읽음 (대용량 export 용)
+    // row 마다 OrderFlatDTO, Address 도 만들지 않음 (OrderJsonWriter 가 컬럼 값을 바로 씀)
+    // 현재 트랜잭션의 커넥션 사용 (Session.doWork)
+    @Transactional(readOnly = true)
+    public void streamAllFlatRows(RowCallbackHandler action) {
+        em.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(FLAT_ROW_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                ps.setFetchSize(1000);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        action.processRow(rs);
+                    }
+                }
+            }
+        });
+    }
 }
@@ -14,7 +14,7 @@ public class OrderSimpleQueryRepository {
 
     public List<OrderSimpleQueryDTO> findOrderDTOS() {
         return em.createQuery(
-                "select new jpabook.jpashop.repository.order.simplequery.OrderSimpleQueryDTO(o.id, m.name, o.orderDate, o.status, d.address)" +
+                "select new jpabook.jpashop.repository.order.simplequery.OrderSimpleQueryDTO(o.id, m.name, o.orderDate, o.status, d.address, o.totalPrice)" +
                         " from Order o" +
                         " join o.member m" +
                         " join o.delivery d", OrderSimpleQueryDTO.class)
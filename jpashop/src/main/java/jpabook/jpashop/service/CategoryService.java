@@ -0,0 +1,90 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.domain.Category;
+import jpabook.jpashop.domain.item.Item;
+import jpabook.jpashop.repository.CategoryRepository;
+import jpabook.jpashop.repository.ItemRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+public class CategoryService {
+
+    private final CategoryRepository categoryRepository;
+    private final ItemRepository itemRepository;
+    private final CategoryTreeHolder categoryTreeHolder;
+
+    /**
+     * 카테고리 생성 (parentId가 null이면 최상위)
+     */
+    @Transactional
+    public Long createCategory(String name, Long parentId) {
+        Category category = new Category();
+        category.setName(name);
+        if (parentId != null) {
+            findCategory(parentId).addChildCategory(category);
+        }
+
+        categoryRepository.save(category);
+
+        Long id = category.getId();
+        categoryTreeHolder.updateAfterCommit(tree -> tree.withCategory(id, name, parentId));
+        return id;
+    }
+
+    /**
+     * 카테고리 이동 (하위 카테고리도 함께 이동, newParentId가 null이면 최상위로)
+     */
+    @Transactional
+    public void moveCategory(Long categoryId, Long newParentId) {
+        Category category = findCategory(categoryId);
+        Category newParent = newParentId == null ? null : findCategory(newParentId);
+        if (newParent != null && categoryRepository.isDescendant(category, newParent)) {
+            throw new IllegalArgumentException("자신의 하위 카테고리로 이동할 수 없습니다.");
+        }
+
+        categoryRepository.moveSubtree(category, newParent);
+
+        if (category.getParent() != null) {
+            category.getParent().getChild().remove(category);
+        }
+        if (newParent != null) {
+            newParent.addChildCategory(category);
+        } else {
+            category.setParent(null);
+        }
+
+        categoryTreeHolder.updateAfterCommit(tree -> tree.withMove(categoryId, newParentId));
+    }
+
+    @Transactional
+    public void addItem(Long categoryId, Long itemId) {
+        Category category = findCategory(categoryId);
+        category.getItems().add(itemRepository.findOne(itemId));
+    }
+
+    // 하위 카테고리 전체의 상품
+    public List<Item> findItemsInSubtree(Long categoryId) {
+        return categoryRepository.findItemsInSubtree(categoryId);
+    }
+
+    // 메뉴용 트리 (SQL 없음, 커넥션도 잡지 않음)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CategoryTree getTree() {
+        return categoryTreeHolder.get();
+    }
+
+    private Category findCategory(Long categoryId) {
+        Category category = categoryRepository.findOne(categoryId);
+        if (category == null) {
+            throw new IllegalArgumentException("존재하지 않는 카테고리입니다. categoryId=" + categoryId);
+        }
+        return category;
+    }
+}
@@ -0,0 +1,144 @@
+package jpabook.jpashop.service;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * 카테고리 메뉴용 불변 스냅샷 (SQL 없이 트리 조회)
+ * 변경은 기존 스냅샷을 고치지 않고 바뀐 노드만 교체한 새 스냅샷을 만듦 -> 읽는 쪽은 락 없이 사용
+ */
+public final class CategoryTree {
+
+    public static final CategoryTree EMPTY = new CategoryTree(Collections.emptyMap(), Collections.emptyList());
+
+    private final Map<Long, Node> nodes;
+    private final List<Long> rootIds;
+
+    private CategoryTree(Map<Long, Node> nodes, List<Long> rootIds) {
+        this.nodes = nodes;
+        this.rootIds = rootIds;
+    }
+
+    /**
+     * @param rows (id, name, parentId)
+     */
+    public static CategoryTree of(List<Object[]> rows) {
+        Map<Long, List<Long>> childIds = new HashMap<>();
+        List<Long> rootIds = new ArrayList<>();
+        for (Object[] row : rows) {
+            Long parentId = (Long) row[2];
+            (parentId == null ? rootIds : childIds.computeIfAbsent(parentId, k -> new ArrayList<>())).add((Long) row[0]);
+        }
+
+        Map<Long, Node> nodes = new HashMap<>();
+        for (Object[] row : rows) {
+            Long id = (Long) row[0];
+            nodes.put(id, new Node(id, (String) row[1], (Long) row[2], childIds.getOrDefault(id, Collections.emptyList())));
+        }
+        return new CategoryTree(Collections.unmodifiableMap(nodes), Collections.unmodifiableList(rootIds));
+    }
+
+    public List<Node> getRoots() {
+        return toNodes(rootIds);
+    }
+
+    public List<Node> getChildren(Long id) {
+        Node node = nodes.get(id);
+        return node == null ? Collections.emptyList() : toNodes(node.getChildIds());
+    }
+
+    public Node get(Long id) {
+        return nodes.get(id);
+    }
+
+    public int size() {
+        return nodes.size();
+    }
+
+    /**
+     * 카테고리 추가: 새 노드 + 부모 노드(또는 루트 목록)만 교체
+     */
+    public CategoryTree withCategory(Long id, String name, Long parentId) {
+        Map<Long, Node> copy = new HashMap<>(nodes);
+        copy.put(id, new Node(id, name, parentId, Collections.emptyList()));
+        List<Long> roots = rootIds;
+        if (parentId == null) {
+            roots = append(rootIds, id);
+        } else {
+            Node parent = copy.get(parentId);
+            copy.put(parentId, parent.withChildIds(append(parent.getChildIds(), id)));
+        }
+        return new CategoryTree(Collections.unmodifiableMap(copy), roots);
+    }
+
+    /**
+     * 카테고리 이동: 이동한 노드 + 이전 부모 + 새 부모만 교체 (하위 노드는 그대로 재사용)
+     */
+    public CategoryTree withMove(Long id, Long newParentId) {
+        Map<Long, Node> copy = new HashMap<>(nodes);
+        Node node = copy.get(id);
+        List<Long> roots = rootIds;
+
+        if (node.getParentId() == null) {
+            roots = remove(rootIds, id);
+        } else {
+            Node oldParent = copy.get(node.getParentId());
+            copy.put(oldParent.getId(), oldParent.withChildIds(remove(oldParent.getChildIds(), id)));
+        }
+
+        if (newParentId == null) {
+            roots = append(roots, id);
+        } else {
+            Node newParent = copy.get(newParentId);
+            copy.put(newParentId, newParent.withChildIds(append(newParent.getChildIds(), id)));
+        }
+
+        copy.put(id, new Node(id, node.getName(), newParentId, node.getChildIds()));
+        return new CategoryTree(Collections.unmodifiableMap(copy), roots);
+    }
+
+    private List<Node> toNodes(List<Long> ids) {
+        return ids.stream()
+                .map(nodes::get)
+                .collect(toList());
+    }
+
+    private static List<Long> append(List<Long> ids, Long id) {
+        List<Long> copy = new ArrayList<>(ids);
+        copy.add(id);
+        return Collections.unmodifiableList(copy);
+    }
+
+    private static List<Long> remove(List<Long> ids, Long id) {
+        List<Long> copy = new ArrayList<>(ids);
+        copy.remove(id);
+        return Collections.unmodifiableList(copy);
+    }
+
+    @Getter
+    public static final class Node {
+
+        private final Long id;
+        private final String name;
+        private final Long parentId;
+        private final List<Long> childIds;
+
+        private Node(Long id, String name, Long parentId, List<Long> childIds) {
+            this.id = id;
+            this.name = name;
+            this.parentId = parentId;
+            this.childIds = Collections.unmodifiableList(childIds);
+        }
+
+        private Node withChildIds(List<Long> childIds) {
+            return new Node(id, name, parentId, childIds);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.repository.CategoryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * CategoryTree 스냅샷 보관
+ * 처음 조회할 때 한 번만 DB에서 읽고, 이후 변경은 커밋 후 스냅샷에 직접 반영 (DB 재조회 없음)
+ */
+@Component
+public class CategoryTreeHolder {
+
+    private final Supplier<CategoryTree> loader;
+
+    // 변경이 커밋될 때마다 version 이 올라간 새 Snapshot 으로 교체 (tree 가 null 이면 아직 로딩 전)
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(new Snapshot(0, null));
+
+    @Autowired
+    public CategoryTreeHolder(CategoryRepository categoryRepository, PlatformTransactionManager transactionManager) {
+        TransactionTemplate readOnlyTx = new TransactionTemplate(transactionManager);
+        readOnlyTx.setReadOnly(true);
+        this.loader = () -> readOnlyTx.execute(status -> CategoryTree.of(categoryRepository.findAllForTree()));
+    }
+
+    CategoryTreeHolder(Supplier<CategoryTree> loader) {
+        this.loader = loader;
+    }
+
+    public CategoryTree get() {
+        Snapshot current = snapshot.get();
+        while (current.tree == null) {
+            CategoryTree loaded = loader.get();
+            // 로딩 중에 다른 트랜잭션이 커밋했으면 snapshot 이 바뀌어 있으므로 교체하지 않고 다시 로딩
+            snapshot.compareAndSet(current, new Snapshot(current.version, loaded));
+            current = snapshot.get();
+        }
+        return current.tree;
+    }
+
+    /**
+     * 현재 트랜잭션이 커밋되면 스냅샷에 변경 반영 (롤백되면 반영 안 함)
+     */
+    public void updateAfterCommit(UnaryOperator<CategoryTree> change) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                applyCommitted(change);
+            }
+        });
+    }
+
+    // 커밋된 변경 반영, 로딩 전이면 version 만 올려서 진행 중인 로딩 결과를 버리게 함
+    void applyCommitted(UnaryOperator<CategoryTree> change) {
+        snapshot.updateAndGet(current ->
+                new Snapshot(current.version + 1, current.tree == null ? null : change.apply(current.tree)));
+    }
+
+    private static final class Snapshot {
+        private final long version;
+        private final CategoryTree tree;
+
+        private Snapshot(long version, CategoryTree tree) {
+            this.version = version;
+            this.tree = tree;
+        }
+    }
+}
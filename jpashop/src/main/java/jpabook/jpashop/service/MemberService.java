@@ -1,9 +1,13 @@
 package jpabook.jpashop.service;
 
 import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.repository.MemberNameFilter;
+import jpabook.jpashop.repository.MemberNameIndex;
 import jpabook.jpashop.repository.MemberRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
@@ -14,6 +18,8 @@ import java.util.List;
 public class MemberService {
 
     private final MemberRepository memberRepository;
+    private final MemberNameIndex memberNameIndex;
+    private final MemberNameFilter memberNameFilter;
 
     /**
      *  회원 가입
@@ -21,13 +27,17 @@ public class MemberService {
     @Transactional
     public Long join(Member member) {
         validateDuplicateMember(member); //중복 회원 검증
-        memberRepository.save(member);
+        try {
+            memberRepository.saveAndFlush(member);
+        } catch (DataIntegrityViolationException e) { // 검증 후 다른 트랜잭션이 같은 이름으로 먼저 가입 (uk_member_name)
+            throw new IllegalStateException("이미 존재하는 회원입니다.", e);
+        }
         return member.getId();
     }
 
+    // 필터에 없는 이름은 DB 조회 생략
     private void validateDuplicateMember(Member member) {
-        List<Member> findMembers = memberRepository.findByName(member.getName());
-        if(!findMembers.isEmpty()) {
+        if (memberNameFilter.exists(member.getName(), memberRepository::existsByName)) {
             throw new IllegalStateException("이미 존재하는 회원입니다.");
         }
     }
@@ -47,4 +57,10 @@ public class MemberService {
         Member member = memberRepository.findOne(id);
         member.setName(name);
     }
+
+    // 회원 이름 색인 재구성 (JPA 를 거치지 않고 회원을 바꾼 뒤 호출), 읽기는 청크마다 트랜잭션
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int rebuildNameIndex() {
+        return memberNameIndex.rebuild();
+    }
 }
@@ -0,0 +1,11 @@
+package jpabook.jpashop.service;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter @Setter
+public class OrderLineRequest {
+
+    private Long itemId;
+    private int count; // 주문 수량
+}
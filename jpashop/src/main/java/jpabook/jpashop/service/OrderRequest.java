@@ -0,0 +1,14 @@
+package jpabook.jpashop.service;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter @Setter
+public class OrderRequest {
+
+    private Long memberId;
+    private List<OrderLineRequest> orderLines = new ArrayList<>(); // 주문 상품 목록
+}
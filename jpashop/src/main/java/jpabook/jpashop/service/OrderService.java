@@ -1,19 +1,35 @@
 package jpabook.jpashop.service;
 
+import jpabook.jpashop.config.AsyncConfig;
 import jpabook.jpashop.domain.Delivery;
 import jpabook.jpashop.domain.Member;
 import jpabook.jpashop.domain.Order;
 import jpabook.jpashop.domain.OrderItem;
 import jpabook.jpashop.domain.item.Item;
+import jpabook.jpashop.exception.NotEnoughStockException;
+import jpabook.jpashop.exception.OrderCancelConflictException;
 import jpabook.jpashop.repository.ItemRepository;
 import jpabook.jpashop.repository.MemberRepository;
 import jpabook.jpashop.repository.OrderRepository;
 import jpabook.jpashop.repository.OrderSearch;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import static java.util.stream.Collectors.toMap;
+import static java.util.stream.Collectors.toSet;
 
 @Service
 @RequiredArgsConstructor
@@ -23,6 +39,15 @@ public class OrderService {
     private final OrderRepository orderRepository;
     private final MemberRepository memberRepository;
     private final ItemRepository itemRepository;
+    private final OrderTotalPriceReconciler orderTotalPriceReconciler;
+
+    // true: 재고 증감을 조건부 update로 DB에서 원자적으로 처리 (dirty checking 대신)
+    @Value("${jpashop.order.atomic-stock:false}")
+    private boolean atomicStock;
+
+    // 일괄 취소에서 update 1번(where order_id in ...)에 넣을 주문 수
+    @Value("${jpashop.order.bulk-cancel.chunk-size:1000}")
+    private int bulkCancelChunkSize;
 
     /**
      * 주문 생성
@@ -39,18 +64,113 @@ public class OrderService {
         delivery.setAddress(member.getAddress());
 
         // 주문상품 생성
-        OrderItem orderItem = OrderItem.createOrderItem(item, item.getPrice(), count);
+        OrderItem orderItem = createOrderItem(item, count);
 
         // 주문 생성
         Order order = Order.createOrder(member, delivery, orderItem);
 
         // 주문 저장
         orderRepository.save(order);
+        addOrderSummaries(member.getId(), List.of(order));
 
         return order.getId();
     }
 
 
+    /**
+     * 여러 주문 일괄 생성 (주문당 여러 상품)
+     * 회원, 상품은 각각 in 쿼리 1번으로 조회하고, insert는 JDBC batch로 모아서 실행
+     * 주문이 없거나, 주문상품이 없거나, 수량이 0 이하면 IllegalArgumentException (엔티티 조회 전)
+     */
+    @Transactional
+    public List<Long> placeOrders(List<OrderRequest> requests) {
+        validate(requests);
+
+        // 엔티티 조회
+        Set<Long> memberIds = requests.stream()
+                .map(OrderRequest::getMemberId)
+                .collect(toSet());
+        Set<Long> itemIds = requests.stream()
+                .flatMap(r -> r.getOrderLines().stream())
+                .map(OrderLineRequest::getItemId)
+                .collect(toSet());
+
+        Map<Long, Member> members = memberRepository.findAllById(memberIds).stream()
+                .collect(toMap(Member::getId, Function.identity()));
+        Map<Long, Item> items = itemRepository.findAllById(itemIds).stream()
+                .collect(toMap(Item::getId, Function.identity()));
+
+        List<Long> orderIds = new ArrayList<>(requests.size());
+        Map<Long, List<Order>> ordersByMember = new LinkedHashMap<>();
+        for (OrderRequest request : requests) {
+            Member member = members.get(request.getMemberId());
+            if (member == null) {
+                throw new IllegalArgumentException("존재하지 않는 회원입니다. memberId=" + request.getMemberId());
+            }
+
+            // 배송정보 생성
+            Delivery delivery = new Delivery();
+            delivery.setAddress(member.getAddress());
+
+            // 주문상품 생성
+            OrderItem[] orderItems = new OrderItem[request.getOrderLines().size()];
+            for (int i = 0; i < orderItems.length; i++) {
+                OrderLineRequest line = request.getOrderLines().get(i);
+                Item item = items.get(line.getItemId());
+                if (item == null) {
+                    throw new IllegalArgumentException("존재하지 않는 상품입니다. itemId=" + line.getItemId());
+                }
+                orderItems[i] = createOrderItem(item, line.getCount());
+            }
+
+            // 주문 생성, 저장 (insert는 flush 시점에 batch로 실행)
+            Order order = Order.createOrder(member, delivery, orderItems);
+            orderRepository.save(order);
+            orderIds.add(order.getId());
+            ordersByMember.computeIfAbsent(member.getId(), id -> new ArrayList<>()).add(order);
+        }
+
+        // 회원 주문 요약: 회원별로 합쳐서 update 1번씩
+        ordersByMember.forEach(this::addOrderSummaries);
+
+        return orderIds;
+    }
+
+    private void addOrderSummaries(Long memberId, List<Order> orders) {
+        long spend = 0;
+        LocalDateTime lastOrderDate = null;
+        for (Order order : orders) {
+            spend += order.getTotalPrice();
+            if (lastOrderDate == null || order.getOrderDate().isAfter(lastOrderDate)) {
+                lastOrderDate = order.getOrderDate();
+            }
+        }
+        memberRepository.addOrderSummary(memberId, orders.size(), spend, lastOrderDate);
+    }
+
+    // 수량이 0 이하면 removeStock 이 재고를 늘리므로 거부
+    private static void validate(List<OrderRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("주문이 없습니다.");
+        }
+        for (OrderRequest request : requests) {
+            if (request == null || request.getMemberId() == null) {
+                throw new IllegalArgumentException("주문할 회원을 지정해야 합니다.");
+            }
+            if (request.getOrderLines() == null || request.getOrderLines().isEmpty()) {
+                throw new IllegalArgumentException("주문 상품이 없습니다. memberId=" + request.getMemberId());
+            }
+            for (OrderLineRequest line : request.getOrderLines()) {
+                if (line == null || line.getItemId() == null) {
+                    throw new IllegalArgumentException("주문할 상품을 지정해야 합니다. memberId=" + request.getMemberId());
+                }
+                if (line.getCount() <= 0) {
+                    throw new IllegalArgumentException("주문 수량은 1 이상이어야 합니다. itemId=" + line.getItemId());
+                }
+            }
+        }
+    }
+
     /**
      * 주문 취소
      */
@@ -60,11 +180,99 @@ public class OrderService {
         Order order = orderRepository.findOne(orderId);
 
         // 주문 취소
-        order.cancel();
+        if (atomicStock) {
+            order.cancelReserved();
+            order.getOrderItems().forEach(oi -> itemRepository.addStock(oi.getItem().getId(), oi.getCount()));
+        } else {
+            order.cancel();
+        }
+        memberRepository.cancelOrderSummary(order.getMember().getId(), order.getTotalPrice());
+    }
+
+    /**
+     * 주문 일괄 취소 (주문을 읽지 않고 set 기반 update)
+     * bulk-cancel.chunk-size 건씩 주문 상태, 상품 재고(상품별 합계), 회원 주문 요약을 각각 update 1번으로 처리
+     * 취소할 수 없는 주문(이미 취소, 배송 완료)은 건너뜀, 조회 후 다른 요청이 먼저 취소/배송완료하면 OrderCancelConflictException (전체 롤백)
+     * @return 취소된 주문 수
+     */
+    @Transactional
+    public int cancelOrders(List<Long> orderIds) {
+        int canceled = 0;
+        for (int from = 0; from < orderIds.size(); from += bulkCancelChunkSize) {
+            List<Long> chunk = orderIds.subList(from, Math.min(from + bulkCancelChunkSize, orderIds.size()));
+            canceled += cancelAll(orderRepository.findCancelableIds(chunk));
+        }
+        return canceled;
+    }
+
+    /**
+     * itemId 상품을 주문한 주문 일괄 취소 (상품 회수 등), 주문 id 순으로 chunk-size 건씩
+     */
+    @Transactional
+    public int cancelOrdersByItem(Long itemId) {
+        int canceled = 0;
+        Long lastId = 0L;
+        List<Long> ids;
+        do {
+            ids = orderRepository.findCancelableIdsByItemAfter(itemId, lastId, bulkCancelChunkSize);
+            if (!ids.isEmpty()) {
+                lastId = ids.get(ids.size() - 1);
+                canceled += cancelAll(ids);
+            }
+        } while (ids.size() == bulkCancelChunkSize);
+        return canceled;
+    }
+
+    private int cancelAll(List<Long> orderIds) {
+        if (orderIds.isEmpty()) {
+            return 0;
+        }
+        // 상태를 먼저 바꿔서 주문 row 를 잠금 -> 재고, 요약은 실제로 취소된 주문만 반영 (건수가 다르면 롤백)
+        int canceled = orderRepository.cancelAll(orderIds);
+        if (canceled != orderIds.size()) {
+            throw new OrderCancelConflictException("다른 요청이 먼저 취소했거나 배송이 완료된 주문이 있습니다.");
+        }
+        itemRepository.addStockOfOrders(orderIds);
+        memberRepository.cancelOrderSummaries(orderIds);
+        orderRepository.detachOrders(orderIds);
+        return canceled;
+    }
+
+    private OrderItem createOrderItem(Item item, int count) {
+        if (!atomicStock) {
+            return OrderItem.createOrderItem(item, item.getPrice(), count);
+        }
+
+        // where stock_quantity >= :count 조건에 걸리면 재고 부족
+        if (!itemRepository.removeStock(item.getId(), count)) {
+            throw new NotEnoughStockException("need more stock");
+        }
+        return OrderItem.createReservedOrderItem(item, item.getPrice(), count);
     }
 
     //검색
     public List<Order> findOrders(OrderSearch orderSearch) {
         return orderRepository.findAllByCriteria(orderSearch);
     }
+
+    /**
+     * 주문 검색을 DB 전용 executor에서 실행 (요청 스레드는 JDBC 대기 없이 반환)
+     * 트랜잭션이 executor 스레드에서 끝나므로 화면에서 쓰는 연관관계는 여기서 모두 초기화
+     * 대기열이 가득 차면 TaskRejectedException
+     */
+    @Async(AsyncConfig.ORDER_SEARCH_EXECUTOR)
+    public CompletableFuture<List<Order>> findOrdersAsync(OrderSearch orderSearch) {
+        List<Order> orders = orderRepository.findAllByCriteria(orderSearch);
+        for (Order order : orders) {
+            order.getMember().getName();
+            order.getOrderItems().forEach(orderItem -> orderItem.getItem().getName());
+        }
+        return CompletableFuture.completedFuture(orders);
+    }
+
+    // 주문 총액 컬럼 검증 (fix: 틀린 주문을 주문상품 합계로 수정), 청크마다 트랜잭션
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public OrderTotalPriceReconciler.Result reconcileTotalPrice(boolean fix) {
+        return orderTotalPriceReconciler.reconcile(fix);
+    }
 }
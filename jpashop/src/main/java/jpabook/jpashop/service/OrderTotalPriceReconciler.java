@@ -0,0 +1,99 @@
+package jpabook.jpashop.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jpabook.jpashop.repository.OrderRepository;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 주문 총액 컬럼(Order.totalPrice)을 주문상품 가격 합계와 비교
+ * 주문 id 순으로 chunk-size 건씩 끊어서 (트랜잭션 1번씩) 확인, fix 면 틀린 주문을 합계로 고침
+ * cron 을 설정하면 주기적으로 확인만 함 (결과는 로그 + jpashop.order.total_price.mismatches 게이지)
+ */
+@Slf4j
+@Component
+public class OrderTotalPriceReconciler {
+
+    private static final int SAMPLE_SIZE = 100;
+
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate tx;
+    private final int chunkSize;
+    private final AtomicLong lastMismatched = new AtomicLong();
+
+    public OrderTotalPriceReconciler(OrderRepository orderRepository, PlatformTransactionManager transactionManager, MeterRegistry registry,
+                                     @Value("${jpashop.order.total-price-reconcile.chunk-size:1000}") int chunkSize) {
+        this.orderRepository = orderRepository;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        Gauge.builder("jpashop.order.total_price.mismatches", lastMismatched, AtomicLong::get)
+                .description("마지막 검증에서 totalPrice 가 주문상품 합계와 다른 주문 수")
+                .register(registry);
+    }
+
+    @Scheduled(cron = "${jpashop.order.total-price-reconcile.cron:-}")
+    public void check() {
+        reconcile(false);
+    }
+
+    public Result reconcile(boolean fix) {
+        Result result = new Result(fix);
+        Long lastId = 0L;
+        while (lastId != null) {
+            Long after = lastId;
+            lastId = tx.execute(status -> {
+                List<Long> ids = orderRepository.findIdsAfter(after, chunkSize);
+                if (ids.isEmpty()) {
+                    return null;
+                }
+                for (Object[] row : orderRepository.findTotalPriceChecks(ids.get(0), ids.get(ids.size() - 1))) {
+                    Long orderId = (Long) row[0];
+                    int sum = ((Number) row[2]).intValue();
+                    result.checked++;
+                    if ((Integer) row[1] != sum) {
+                        result.mismatch(orderId);
+                        if (fix) {
+                            orderRepository.updateTotalPrice(orderId, sum);
+                        }
+                    }
+                }
+                return ids.size() < chunkSize ? null : ids.get(ids.size() - 1);
+            });
+        }
+
+        lastMismatched.set(fix ? 0 : result.mismatched);
+        if (result.mismatched > 0) {
+            log.warn("주문 총액 불일치 {}건 (확인 {}건, 수정 {}) 예: {}", result.mismatched, result.checked, fix, result.sampleOrderIds);
+        } else {
+            log.info("주문 총액 확인 {}건 불일치 없음", result.checked);
+        }
+        return result;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Result {
+        private final boolean fixed; // true: 불일치 주문을 주문상품 합계로 수정함
+        private long checked;
+        private long mismatched;
+        private final List<Long> sampleOrderIds = new ArrayList<>(); // 불일치 주문 id (최대 100개)
+
+        private void mismatch(Long orderId) {
+            mismatched++;
+            if (sampleOrderIds.size() < SAMPLE_SIZE) {
+                sampleOrderIds.add(orderId);
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package jpabook.jpashop.sql;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 요청별 SQL 예산
+ * - 실행 횟수, JDBC 시간, row 수를 Micrometer 지표(uri 태그)로 기록
+ * - 응답 헤더 X-Sql-Statements / X-Sql-Time-Ms (응답 body를 쓰기 시작한 시점까지의 값)
+ * - 같은 형태의 SQL이 임계치를 넘게 반복되면 N+1로 보고 경고 로그 + 카운터 증가
+ * - 비동기 요청은 async dispatch 까지 합쳐서 기록 (executor 작업의 SQL 은 SqlStatementStats.propagate 로 전달된 경우만 집계)
+ */
+@Slf4j
+@Component
+public class SqlStatementFilter extends OncePerRequestFilter {
+
+    private static final String STATS_ATTRIBUTE = SqlStatementFilter.class.getName() + ".STATS";
+
+    private final MeterRegistry registry;
+    private final int nPlusOneThreshold;
+
+    public SqlStatementFilter(MeterRegistry registry,
+                              @Value("${jpashop.sql.n-plus-one-threshold:10}") int nPlusOneThreshold) {
+        this.registry = registry;
+        this.nPlusOneThreshold = nPlusOneThreshold;
+    }
+
+    // 비동기 요청은 async dispatch(결과 렌더링)에서 기록
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        SqlStatementStats stats = (SqlStatementStats) request.getAttribute(STATS_ATTRIBUTE); // async dispatch 면 처음 dispatch 의 통계
+        if (stats == null) {
+            stats = new SqlStatementStats();
+            request.setAttribute(STATS_ATTRIBUTE, stats);
+        }
+        SqlStatementStats.begin(stats);
+        try {
+            filterChain.doFilter(request, new SqlHeaderResponse(response, stats));
+        } finally {
+            SqlStatementStats.end();
+            if (!request.isAsyncStarted()) {
+                record(request, stats);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, SqlStatementStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+
+        DistributionSummary.builder("http.server.requests.sql.statements").tag("uri", uri).register(registry)
+                .record(stats.getStatements());
+        DistributionSummary.builder("http.server.requests.sql.rows").tag("uri", uri).register(registry)
+                .record(stats.getRows());
+        Timer.builder("http.server.requests.sql.time").tag("uri", uri).register(registry)
+                .record(stats.getJdbcNanos(), TimeUnit.NANOSECONDS);
+
+        if (stats.getRepeatedCount() > nPlusOneThreshold) {
+            Counter.builder("http.server.requests.sql.n_plus_one").tag("uri", uri).register(registry).increment();
+            log.warn("N+1 의심: {} {} - 같은 SQL {}회 실행\n{}", request.getMethod(), uri, stats.getRepeatedCount(), stats.getRepeatedShape());
+        }
+    }
+
+    /**
+     * 헤더는 응답이 커밋되기 전에만 쓸 수 있으므로 body를 쓰기 직전에 기록
+     */
+    static class SqlHeaderResponse extends HttpServletResponseWrapper {
+
+        private final SqlStatementStats stats;
+        private boolean written;
+
+        SqlHeaderResponse(HttpServletResponse response, SqlStatementStats stats) {
+            super(response);
+            this.stats = stats;
+        }
+
+        private void writeHeaders() {
+            if (!written && !isCommitted()) {
+                written = true;
+                setHeader("X-Sql-Statements", String.valueOf(stats.getStatements()));
+                setHeader("X-Sql-Time-Ms", String.valueOf(TimeUnit.NANOSECONDS.toMillis(stats.getJdbcNanos())));
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeaders();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeaders();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeaders();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeHeaders();
+            super.sendRedirect(location);
+        }
+    }
+}
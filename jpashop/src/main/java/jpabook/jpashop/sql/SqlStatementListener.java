@@ -0,0 +1,32 @@
+package jpabook.jpashop.sql;
+
+import com.p6spy.engine.common.ResultSetInformation;
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+
+/**
+ * P6spy JDBC 이벤트로 요청별 SQL 실행 횟수, JDBC 시간, 조회 row 수 집계
+ * (p6spy-spring-boot-starter가 JdbcEventListener 빈을 자동 등록)
+ */
+@Component
+public class SqlStatementListener extends SimpleJdbcEventListener {
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        SqlStatementStats stats = SqlStatementStats.current();
+        if (stats != null) {
+            stats.statement(statementInformation.getSql(), timeElapsedNanos);
+        }
+    }
+
+    @Override
+    public void onAfterResultSetNext(ResultSetInformation resultSetInformation, long timeElapsedNanos, boolean hasNext, SQLException e) {
+        SqlStatementStats stats = SqlStatementStats.current();
+        if (stats != null && hasNext) {
+            stats.row();
+        }
+    }
+}
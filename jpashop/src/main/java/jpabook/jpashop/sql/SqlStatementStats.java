@@ -0,0 +1,124 @@
+package jpabook.jpashop.sql;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * HTTP 요청 1건 동안 실행된 SQL 통계
+ * 요청 스레드 외에 비동기 작업 스레드(propagate 로 전달)에서도 집계하므로 동기화
+ */
+public class SqlStatementStats {
+
+    private static final ThreadLocal<SqlStatementStats> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private long jdbcNanos;
+    private long rows;
+    private final Map<String, Integer> shapes = new HashMap<>();
+
+    private String repeatedShape;
+    private int repeatedCount;
+
+    static void begin(SqlStatementStats stats) {
+        CURRENT.set(stats);
+    }
+
+    static SqlStatementStats current() {
+        return CURRENT.get();
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * 다른 스레드에서 실행할 작업에 현재 요청의 통계를 전달 (TaskDecorator 에서 작업을 넘기는 스레드로 호출)
+     * 요청 중이 아니면 작업을 그대로 반환
+     */
+    public static Runnable propagate(Runnable task) {
+        SqlStatementStats stats = CURRENT.get();
+        if (stats == null) {
+            return task;
+        }
+        return () -> {
+            SqlStatementStats previous = CURRENT.get();
+            CURRENT.set(stats);
+            try {
+                task.run();
+            } finally {
+                if (previous == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(previous);
+                }
+            }
+        };
+    }
+
+    synchronized void statement(String sql, long elapsedNanos) {
+        statements++;
+        jdbcNanos += elapsedNanos;
+        if (sql == null) {
+            return;
+        }
+
+        String shape = normalize(sql);
+        int count = shapes.merge(shape, 1, Integer::sum);
+        if (count > repeatedCount) {
+            repeatedCount = count;
+            repeatedShape = shape;
+        }
+    }
+
+    synchronized void row() {
+        rows++;
+    }
+
+    public synchronized int getStatements() {
+        return statements;
+    }
+
+    public synchronized long getJdbcNanos() {
+        return jdbcNanos;
+    }
+
+    public synchronized long getRows() {
+        return rows;
+    }
+
+    /**
+     * 가장 많이 반복된 SQL 형태와 그 횟수 (N+1 판단용)
+     */
+    public synchronized String getRepeatedShape() {
+        return repeatedShape;
+    }
+
+    public synchronized int getRepeatedCount() {
+        return repeatedCount;
+    }
+
+    /**
+     * SQL 형태 정규화: 바인딩 값은 이미 ? 이므로 batch fetch in (?, ?, ...) 길이 차이만 하나로 묶음
+     * in 절이 없으면 원본 문자열을 그대로 사용 (추가 할당 없음)
+     */
+    static String normalize(String sql) {
+        int idx = sql.indexOf("in (?");
+        if (idx < 0) {
+            return sql;
+        }
+
+        StringBuilder sb = new StringBuilder(sql.length());
+        int from = 0;
+        while (idx >= 0) {
+            int start = idx + "in (".length();
+            int end = start;
+            while (end < sql.length() && (sql.charAt(end) == '?' || sql.charAt(end) == ',' || sql.charAt(end) == ' ')) {
+                end++;
+            }
+            sb.append(sql, from, start).append('?');
+            from = end;
+            idx = sql.indexOf("in (?", end);
+        }
+        return sb.append(sql, from, sql.length()).toString();
+    }
+}
@@ -0,0 +1,95 @@
+-- 엔티티 기준 초기 스키마 (기존 ddl-auto: create 결과와 동일, FK 이름만 읽기 쉽게 지정)
+-- 시퀀스 increment 는 jpashop.id.allocation-size 값 (HibernateConfig 에서 placeholder 로 전달)
+
+create sequence category_seq start with 1 increment by ${id_allocation_size};
+create sequence category_closure_seq start with 1 increment by ${id_allocation_size};
+create sequence delivery_seq start with 1 increment by ${id_allocation_size};
+create sequence item_seq start with 1 increment by ${id_allocation_size};
+create sequence member_seq start with 1 increment by ${id_allocation_size};
+create sequence order_seq start with 1 increment by ${id_allocation_size};
+create sequence order_item_seq start with 1 increment by ${id_allocation_size};
+
+create table member (
+    member_id bigint not null,
+    city varchar(255),
+    street varchar(255),
+    zipcode varchar(255),
+    name varchar(255),
+    primary key (member_id)
+);
+
+create table delivery (
+    delivery_id bigint not null,
+    city varchar(255),
+    street varchar(255),
+    zipcode varchar(255),
+    status varchar(255),
+    primary key (delivery_id)
+);
+
+create table item (
+    dtype varchar(31) not null,
+    item_id bigint not null,
+    name varchar(255),
+    price integer not null,
+    stock_quantity integer not null,
+    artist varchar(255),
+    etc varchar(255),
+    author varchar(255),
+    isbn varchar(255),
+    actor varchar(255),
+    director varchar(255),
+    primary key (item_id)
+);
+
+create table orders (
+    order_id bigint not null,
+    order_date timestamp,
+    status varchar(255),
+    delivery_id bigint,
+    member_id bigint,
+    primary key (order_id)
+);
+
+create table order_item (
+    order_item_id bigint not null,
+    count integer not null,
+    order_price integer not null,
+    item_id bigint,
+    order_id bigint,
+    primary key (order_item_id)
+);
+
+create table category (
+    category_id bigint not null,
+    name varchar(255),
+    parent_id bigint,
+    primary key (category_id)
+);
+
+create table category_item (
+    category_id bigint not null,
+    item_id bigint not null
+);
+
+create table category_closure (
+    category_closure_id bigint not null,
+    depth integer not null,
+    ancestor_id bigint,
+    descendant_id bigint,
+    primary key (category_closure_id)
+);
+
+create index idx_orders_order_date_id on orders (order_date, order_id);
+create index idx_category_closure_descendant on category_closure (descendant_id);
+alter table category_closure add constraint uk_category_closure_ancestor_descendant unique (ancestor_id, descendant_id);
+
+alter table orders add constraint fk_orders_member foreign key (member_id) references member;
+alter table orders add constraint fk_orders_delivery foreign key (delivery_id) references delivery;
+alter table order_item add constraint fk_order_item_order foreign key (order_id) references orders;
+alter table order_item add constraint fk_order_item_item foreign key (item_id) references item;
+alter table category add constraint fk_category_parent foreign key (parent_id) references category;
+alter table category_item add constraint fk_category_item_category foreign key (category_id) references category;
+alter table category_item add constraint fk_category_item_item foreign key (item_id) references item;
+alter table category_closure add constraint fk_category_closure_ancestor foreign key (ancestor_id) references category;
+alter table category_closure add constraint fk_category_closure_descendant foreign key (descendant_id) references category;
@@ -0,0 +1,11 @@
+-- 주문 검색 경로 인덱스 (OrderSearchIndexTest 에서 실행계획 검증)
+
+-- OrderRepository.findAll / findAllByCriteria: where o.status = ? (+ member join)
+create index idx_orders_status_member on orders (status, member_id);
+
+-- OrderRepository.findAll / findAllByCriteria: where m.name like ?
+create index idx_member_name on member (name);
+
+-- OrderQueryRepository.findAllByDTO_optimization: where oi.order_id in (...) -> item_id, order_price, count 까지 인덱스에서 해결
+-- OrderRepository.findAllWithItem: join order_item on order_id
+create index idx_order_item_order_covering on order_item (order_id, item_id, order_price, count);
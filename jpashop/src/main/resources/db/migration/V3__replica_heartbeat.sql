@@ -0,0 +1,9 @@
+-- read replica 지연 측정용 heartbeat (jpashop.replica.enabled)
+-- ReplicaDataSources 가 primary 에 주기적으로 시각을 기록하고, replica 로 복제된 값과 비교
+create table replica_heartbeat (
+    id int not null,
+    beat_at timestamp not null,
+    primary key (id)
+);
+
+insert into replica_heartbeat (id, beat_at) values (1, current_timestamp);
@@ -0,0 +1,9 @@
+-- 주문 총액 컬럼 (Order.totalPrice): 목록 조회 시 order_item 을 읽지 않도록 비정규화
+-- 기존 주문은 order_item 합계로 채움
+alter table orders add column total_price integer default 0 not null;
+
+update orders o set total_price = (
+    select coalesce(sum(oi.order_price * oi.count), 0)
+    from order_item oi
+    where oi.order_id = o.order_id
+);
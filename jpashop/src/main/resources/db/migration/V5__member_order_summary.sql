@@ -0,0 +1,13 @@
+-- 회원 주문 요약 (MemberOrderSummary): member.orders 를 읽지 않고 주문 수/마지막 주문/누적 금액 표시
+alter table member add column order_count integer default 0 not null;
+alter table member add column last_order_date timestamp;
+alter table member add column lifetime_spend bigint default 0 not null;
+
+-- 기존 주문으로 채움 (주문 수, 누적 금액은 취소 제외 / 마지막 주문 시간은 취소 포함)
+update member m set
+    order_count = (select count(*) from orders o where o.member_id = m.member_id and o.status <> 'CANCEL'),
+    last_order_date = (select max(o.order_date) from orders o where o.member_id = m.member_id),
+    lifetime_spend = (select coalesce(sum(o.total_price), 0) from orders o where o.member_id = m.member_id and o.status <> 'CANCEL');
+
+-- 회원별 주문 이력 (order_date desc keyset 페이징)
+create index idx_orders_member_order_date on orders (member_id, order_date, order_id);
@@ -0,0 +1,8 @@
+-- 회원 이름 중복 방지: MemberService.join 의 중복 검사(select 후 insert)는 동시 가입을 막지 못하므로 unique 제약으로 보장
+-- 이미 중복된 이름은 가장 먼저 가입한 회원만 그대로 두고 나머지는 이름 뒤에 #member_id
+update member m set name = name || '#' || member_id
+where exists (select 1 from member d where d.name = m.name and d.member_id < m.member_id);
+
+-- unique 제약의 인덱스가 주문 검색(회원명)에도 쓰이므로 기존 인덱스 제거
+drop index idx_member_name;
+alter table member add constraint uk_member_name unique (name);
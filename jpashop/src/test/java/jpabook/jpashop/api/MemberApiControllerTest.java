@@ -0,0 +1,41 @@
+package jpabook.jpashop.api;
+
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.service.MemberService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class MemberApiControllerTest {
+
+    @Autowired MockMvc mvc;
+
+    @Autowired MemberService memberService;
+
+    @Test
+    public void 주문이력_잘못된_요청은_400() throws Exception {
+        //given
+        Member member = new Member();
+        member.setName("이력요청" + System.nanoTime());
+        Long memberId = memberService.join(member);
+        String uri = "/api/v1/members/" + memberId + "/orders";
+
+        //when, then
+        assertEquals(400, status(uri + "?limit=0"));
+        assertEquals(400, status(uri + "?limit=-1"));
+        assertEquals(400, status(uri + "?limit=101"));
+        assertEquals(400, status(uri + "?cursor=not-a-cursor"));
+        assertEquals(200, status(uri + "?limit=1"));
+    }
+
+    private int status(String uri) throws Exception {
+        return mvc.perform(get(uri)).andReturn().getResponse().getStatus();
+    }
+}
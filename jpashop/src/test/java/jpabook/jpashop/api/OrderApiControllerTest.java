@@ -0,0 +1,170 @@
+package jpabook.jpashop.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.domain.item.Book;
+import jpabook.jpashop.repository.OrderRepository;
+import jpabook.jpashop.service.ItemService;
+import jpabook.jpashop.service.MemberService;
+import jpabook.jpashop.service.OrderLineRequest;
+import jpabook.jpashop.service.OrderRequest;
+import jpabook.jpashop.service.OrderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class OrderApiControllerTest {
+
+    @Autowired MockMvc mvc;
+
+    @Autowired ObjectMapper objectMapper;
+
+    @Autowired MemberService memberService;
+
+    @Autowired ItemService itemService;
+
+    @Autowired OrderService orderService;
+
+    @Autowired JdbcTemplate jdbcTemplate;
+
+    @SpyBean OrderRepository orderRepository;
+
+    @Test
+    public void 커서_페이징_잘못된_요청은_400() throws Exception {
+        //when, then
+        assertEquals(400, status("/api/v3.2/orders?limit=0"));
+        assertEquals(400, status("/api/v3.2/orders?limit=-1"));
+        assertEquals(400, status("/api/v3.2/orders?limit=1001"));
+        assertEquals(400, status("/api/v3.2/orders?cursor=not-a-cursor"));
+        assertEquals(200, status("/api/v3.2/orders?limit=1"));
+    }
+
+    @Test
+    public void 일괄주문_잘못된_요청은_400() throws Exception {
+        //given
+        Long memberId = createMember();
+        Long bookId = createBook("bulk 400", 10000);
+        String line = "{\"itemId\":" + bookId + ",\"count\":%d}";
+
+        //when, then
+        assertEquals(400, postStatus("/api/v1/orders", "null"));
+        assertEquals(400, postStatus("/api/v1/orders", "[]"));
+        assertEquals(400, postStatus("/api/v1/orders", "[{\"memberId\":" + memberId + ",\"orderLines\":[]}]"));
+        assertEquals(400, postStatus("/api/v1/orders", "[{\"memberId\":" + memberId + ",\"orderLines\":[" + String.format(line, 0) + "]}]"));
+        assertEquals(400, postStatus("/api/v1/orders", "[{\"memberId\":" + memberId + ",\"orderLines\":[" + String.format(line, -3) + "]}]"));
+        assertEquals(10, itemService.findOne(bookId).getStockQuantity(), "음수 수량으로 재고가 늘면 안 된다.");
+        assertEquals(200, postStatus("/api/v1/orders", "[{\"memberId\":" + memberId + ",\"orderLines\":[" + String.format(line, 1) + "]}]"));
+    }
+
+    @Test
+    public void 일괄취소_도중_먼저_취소된_주문은_409() throws Exception {
+        //given: 취소 대상 조회 후 다른 요청이 먼저 취소한 상황 (조회 결과에 이미 취소된 주문이 남아 있음)
+        Long memberId = createMember();
+        Long bookId = createBook("cancel 409", 10000);
+        Long orderId = orderService.order(memberId, bookId, 2);
+        orderService.cancelOrder(orderId);
+        doReturn(List.of(orderId)).when(orderRepository).findCancelableIds(any());
+
+        //when
+        int status = postStatus("/api/v1/orders/cancel", "{\"orderIds\":[" + orderId + "]}");
+
+        //then
+        assertEquals(409, status);
+        assertEquals(10, itemService.findOne(bookId).getStockQuantity(), "재고가 두 번 돌아오면 안 된다.");
+    }
+
+    @Test
+    public void export는_주문_id_순으로_주문마다_한줄() throws Exception {
+        //given: 주문상품 2개짜리 주문 2건 (주문 1건의 row 2개가 연속으로 나옴)
+        Long memberId = createMember();
+        Long bookA = createBook("export A", 10000);
+        Long bookB = createBook("export B", 20000);
+        List<Long> orderIds = orderService.placeOrders(Arrays.asList(
+                orderRequest(memberId, bookA, bookB), orderRequest(memberId, bookB, bookA)));
+
+        //when
+        String[] lines = mvc.perform(get("/api/orders/export")).andReturn().getResponse()
+                .getContentAsString(StandardCharsets.UTF_8).split("\n");
+
+        //then: 두 번째 줄부터도 앞에 구분자(공백) 없이 JSON 객체만
+        assertArrayEquals(objectMapper.writeValueAsBytes(objectMapper.readTree(lines[1])), lines[1].getBytes(StandardCharsets.UTF_8));
+
+        //then: 주문상품이 있는 주문마다 한 줄, order id 오름차순 (같은 주문이 두 줄로 나뉘지 않음)
+        assertEquals(jdbcTemplate.queryForObject("select count(distinct order_id) from order_item", Long.class), lines.length);
+        Map<Long, JsonNode> orders = new HashMap<>();
+        long previousId = 0;
+        for (String line : lines) {
+            JsonNode order = objectMapper.readTree(line);
+            long orderId = order.get("orderId").asLong();
+            assertTrue(orderId > previousId, "order id 순서: " + previousId + " -> " + orderId);
+            previousId = orderId;
+            orders.put(orderId, order);
+        }
+        for (Long orderId : orderIds) {
+            JsonNode orderItems = orders.get(orderId).get("orderItems");
+            Set<String> itemNames = new HashSet<>();
+            for (JsonNode orderItem : orderItems) {
+                assertEquals(orderId.longValue(), orderItem.get("orderId").asLong());
+                itemNames.add(orderItem.get("itemName").asText());
+            }
+            assertEquals(new HashSet<>(Arrays.asList("export A", "export B")), itemNames);
+        }
+    }
+
+    private Long createMember() {
+        Member member = new Member();
+        member.setName("export" + System.nanoTime());
+        return memberService.join(member);
+    }
+
+    private Long createBook(String name, int price) {
+        Book book = new Book();
+        book.setName(name);
+        book.setPrice(price);
+        book.setStockQuantity(10);
+        itemService.saveItem(book);
+        return book.getId();
+    }
+
+    private OrderRequest orderRequest(Long memberId, Long... itemIds) {
+        OrderRequest request = new OrderRequest();
+        request.setMemberId(memberId);
+        for (Long itemId : itemIds) {
+            OrderLineRequest line = new OrderLineRequest();
+            line.setItemId(itemId);
+            line.setCount(1);
+            request.getOrderLines().add(line);
+        }
+        return request;
+    }
+
+    private int postStatus(String uri, String json) throws Exception {
+        return mvc.perform(post(uri).contentType(MediaType.APPLICATION_JSON).content(json)).andReturn().getResponse().getStatus();
+    }
+
+    private int status(String uri) throws Exception {
+        return mvc.perform(get(uri)).andReturn().getResponse().getStatus();
+    }
+}
@@ -0,0 +1,77 @@
+package jpabook.jpashop.api;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jpabook.jpashop.repository.order.query.OrderFlatDTO;
+import jpabook.jpashop.repository.order.query.OrderQueryRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class OrderJsonWriterTest {
+
+    @Autowired MockMvc mvc;
+
+    @Autowired ObjectMapper objectMapper;
+
+    @Autowired OrderQueryRepository orderQueryRepository;
+
+    @Test
+    public void v7은_v6과_같은_JSON() throws Exception {
+        //when
+        String v6 = body("/api/v6/orders");
+        String v7 = body("/api/v7/orders");
+
+        //then: 필드 순서까지 같음
+        assertFalse(objectMapper.readTree(v6).isEmpty());
+        assertEquals(v6, v7);
+    }
+
+    @Test
+    public void export는_주문마다_한줄() throws Exception {
+        //when
+        JsonNode v6 = objectMapper.readTree(body("/api/v6/orders"));
+        String[] lines = body("/api/orders/export").split("\n");
+
+        //then
+        assertEquals(v6.size(), lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            assertEquals(v6.get(i), objectMapper.readTree(lines[i]));
+        }
+    }
+
+    @Test
+    @Transactional
+    public void OrderFlatDTO로_쓰기() throws Exception {
+        //given
+        StringWriter out = new StringWriter();
+
+        //when
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            OrderJsonWriter writer = OrderJsonWriter.array(generator);
+            for (OrderFlatDTO flat : orderQueryRepository.findAllByDTO_flat()) {
+                writer.write(flat);
+            }
+            writer.finish();
+        }
+
+        //then
+        assertEquals(body("/api/v6/orders"), out.toString());
+    }
+
+    private String body(String url) throws Exception {
+        return mvc.perform(get(url)).andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,131 @@
+package jpabook.jpashop.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.repository.ItemRepository;
+import jpabook.jpashop.repository.order.simplequery.OrderSimpleQueryRepository;
+import jpabook.jpashop.service.MemberService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+// 테이블 버전은 커밋 후에 올라가므로 테스트 트랜잭션(@Transactional) 없이 실행
+@SpringBootTest(properties = {"spring.jpa.properties.hibernate.generate_statistics=true",
+        "jpashop.http-cache.response-cache.enabled=true"})
+@AutoConfigureMockMvc
+public class VersionedResourceTest {
+
+    @Autowired MockMvc mvc;
+
+    @Autowired MemberService memberService;
+
+    @Autowired ItemRepository itemRepository;
+
+    @Autowired OrderSimpleQueryRepository orderSimpleQueryRepository;
+
+    @Autowired ObjectMapper objectMapper;
+
+    @Autowired PlatformTransactionManager transactionManager;
+
+    @Autowired EntityManagerFactory emf;
+
+    TransactionTemplate tx;
+    Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        statistics = emf.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    public void ETag가_같으면_SQL_없이_304() throws Exception {
+        //given
+        String etag = request("/api/v2/members", null).getHeader(HttpHeaders.ETAG);
+        statistics.clear();
+
+        //when
+        MockHttpServletResponse response = request("/api/v2/members", etag);
+
+        //then
+        assertEquals(304, response.getStatus());
+        assertEquals(etag, response.getHeader(HttpHeaders.ETAG));
+        assertEquals(0, response.getContentAsByteArray().length);
+        assertEquals(0, statistics.getPrepareStatementCount(), "304 는 DB를 조회하지 않는다.");
+    }
+
+    @Test
+    public void 회원이_바뀌면_ETag가_바뀜() throws Exception {
+        //given
+        String etag = request("/api/v2/members", null).getHeader(HttpHeaders.ETAG);
+        String name = "etag" + System.nanoTime();
+
+        //when
+        Member member = new Member();
+        member.setName(name);
+        memberService.join(member);
+
+        //then: 예전 ETag 로 요청하면 새 응답
+        MockHttpServletResponse response = request("/api/v2/members", etag);
+        assertEquals(200, response.getStatus());
+        assertNotEquals(etag, response.getHeader(HttpHeaders.ETAG));
+        assertTrue(response.getContentAsString(StandardCharsets.UTF_8).contains(name));
+    }
+
+    @Test
+    public void 벌크_update도_ETag에_반영() throws Exception {
+        //given
+        Long itemId = (Long) tx.execute(status -> itemRepository.findIdAndPrices()).get(0)[0];
+        String orders = request("/api/v5/orders", null).getHeader(HttpHeaders.ETAG);
+        String members = request("/api/v2/members", null).getHeader(HttpHeaders.ETAG);
+
+        //when: 엔티티 이벤트가 없는 update
+        tx.execute(status -> {
+            itemRepository.addStock(itemId, 1);
+            return null;
+        });
+
+        //then: Item 을 쓰는 응답만 바뀜
+        assertEquals(200, request("/api/v5/orders", orders).getStatus());
+        assertEquals(304, request("/api/v2/members", members).getStatus());
+    }
+
+    @Test
+    public void 응답_캐시는_SQL_없이_같은_JSON() throws Exception {
+        //given
+        MockHttpServletResponse first = request("/api/v4/simple-orders", null);
+        String json = objectMapper.writeValueAsString(tx.execute(status -> orderSimpleQueryRepository.findOrderDTOS()));
+        statistics.clear();
+
+        //when
+        MockHttpServletResponse second = request("/api/v4/simple-orders", null);
+
+        //then: 컨버터로 직렬화한 것과 같은 JSON
+        assertEquals(json, first.getContentAsString(StandardCharsets.UTF_8));
+        assertEquals(200, second.getStatus());
+        assertEquals(first.getHeader(HttpHeaders.ETAG), second.getHeader(HttpHeaders.ETAG));
+        assertEquals(first.getContentAsString(StandardCharsets.UTF_8), second.getContentAsString(StandardCharsets.UTF_8));
+        assertTrue(second.getContentType().startsWith("application/json"));
+        assertEquals(0, statistics.getPrepareStatementCount(), "캐시된 응답은 DB를 조회하지 않는다.");
+    }
+
+    private MockHttpServletResponse request(String uri, String ifNoneMatch) throws Exception {
+        return mvc.perform(ifNoneMatch == null ? get(uri) : get(uri).header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch))
+                .andReturn().getResponse();
+    }
+}
@@ -0,0 +1,97 @@
+package jpabook.jpashop.bulk;
+
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.repository.MemberNameIndex;
+import jpabook.jpashop.service.MemberService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 적재는 chunk 마다 커밋되므로 테스트 트랜잭션(@Transactional) 없이 실행, 이름은 실행마다 다른 prefix
+@SpringBootTest(properties = "jpashop.bulk.chunk-size=7")
+public class BulkLoaderTest {
+
+    @Autowired BulkLoader bulkLoader;
+
+    @Autowired MemberService memberService;
+
+    @Autowired MemberNameIndex memberNameIndex;
+
+    @Autowired JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void JPA_JDBC_적재결과_같음() throws Exception {
+        //given
+        String prefix = "bulk" + System.nanoTime() + "-";
+        bulkLoader.loadBooks(SeedGenerator.books(prefix, 3), BulkLoadMode.JDBC);
+        SeedGenerator.Catalog catalog = catalog(prefix);
+
+        //when
+        BulkLoadResult jpa = bulkLoader.loadMembers(SeedGenerator.members(prefix + "jpa-", 20, 2, 3, catalog), BulkLoadMode.JPA);
+        BulkLoadResult jdbc = bulkLoader.loadMembers(SeedGenerator.members(prefix + "jdbc-", 20, 2, 3, catalog), BulkLoadMode.JDBC);
+
+        //then
+        assertEquals(20, jdbc.getRecords());
+        assertEquals(20 + 20 * 2 * (2 + 3), jdbc.getRows(), "회원 + 주문마다 (주문, 배송, 주문상품 3개)");
+        assertEquals(jpa.getRows(), jdbc.getRows());
+        assertEquals(orderSummary(prefix + "jpa-"), orderSummary(prefix + "jdbc-"), "주문 수, 주문상품 수, 금액 합계");
+    }
+
+    @Test
+    public void JDBC_적재후_하이버네이트_id_와_겹치지않음() throws Exception {
+        //given
+        String prefix = "bulk" + System.nanoTime() + "-";
+        bulkLoader.loadMembers(SeedGenerator.members(prefix, 60, 0, 0, catalog(prefix)), BulkLoadMode.JDBC);
+
+        //when
+        Member member = new Member();
+        member.setName(prefix + "jpa");
+        Long id = memberService.join(member);
+
+        //then
+        assertEquals(61, jdbcTemplate.queryForObject("select count(distinct member_id) from member where name like ?", Integer.class, prefix + "%"));
+        assertEquals(prefix + "jpa", memberService.findOne(id).getName());
+    }
+
+    @Test
+    public void CSV_JDBC_적재후_이름색인_반영() throws Exception {
+        //given
+        String name = "씨에스브이" + System.nanoTime();
+        BufferedReader csv = new BufferedReader(new StringReader(
+                "name,city,street,zipcode\n" +
+                name + ",서울,\"강남대로 1, 2층\",1111\n" +
+                "\n"));
+
+        //when
+        BulkLoadResult result = bulkLoader.loadMembers(CsvRows.members(csv), BulkLoadMode.JDBC);
+
+        //then
+        assertEquals(1, result.getRows());
+        assertEquals("강남대로 1, 2층", jdbcTemplate.queryForObject("select street from member where name = ?", String.class, name));
+        Optional<List<Long>> found = memberNameIndex.findMemberIds(name.substring(2));
+        assertTrue(found.isPresent() && found.get().size() == 1, "JDBC 적재 후 색인을 다시 읽어야 한다.");
+    }
+
+    private SeedGenerator.Catalog catalog(String prefix) {
+        return new SeedGenerator.Catalog(jdbcTemplate.query("select item_id, price from item where name like ? order by item_id",
+                (rs, i) -> new Object[]{rs.getLong(1), rs.getInt(2)}, prefix + "%"));
+    }
+
+    private List<Object> orderSummary(String prefix) {
+        return jdbcTemplate.queryForObject(
+                "select count(distinct o.order_id), count(oi.order_item_id), sum(oi.order_price * oi.count)" +
+                        " from orders o join member m on o.member_id = m.member_id" +
+                        " join delivery d on o.delivery_id = d.delivery_id" +
+                        " join order_item oi on oi.order_id = o.order_id" +
+                        " where m.name like ?",
+                (rs, i) -> List.of(rs.getLong(1), rs.getLong(2), rs.getLong(3)), prefix + "%");
+    }
+}
@@ -0,0 +1,42 @@
+package jpabook.jpashop.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jpabook.jpashop.domain.Member;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+public class HibernateConfigTest {
+
+    @Autowired EntityManager em;
+
+    @Autowired MeterRegistry meterRegistry;
+
+    @Test
+    public void 쿼리플랜_캐시_메트릭은_기본설정에서_집계() throws Exception {
+        //given
+        double before = planCache("hit");
+
+        //when: 같은 JPQL 두 번 -> 두 번째는 플랜 캐시에서
+        for (int i = 0; i < 2; i++) {
+            em.createQuery("select count(m) from Member m where m.name = :name", Long.class)
+                    .setParameter("name", "플랜캐시")
+                    .getSingleResult();
+        }
+
+        //then
+        assertTrue(planCache("hit") > before, "statistics 가 켜져 있으면 hit 이 집계되어야 한다.");
+        assertFalse(Double.isNaN(meterRegistry.get("hibernate.query.plan.cache.hit.ratio").gauge().value()));
+    }
+
+    private double planCache(String result) {
+        return meterRegistry.get("hibernate.query.plan.cache").tag("result", result).functionCounter().count();
+    }
+}
@@ -0,0 +1,153 @@
+package jpabook.jpashop.config;
+
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.service.MemberService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.sql.Timestamp;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * 읽기전용 트랜잭션 -> replica, 쓰기 -> primary, replica 지연 시 primary 로 읽기
+ * primary, replica 는 각각 별도의 H2 in-memory DB (복제는 없으므로 replica 에만 있는 데이터로 구분)
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + ReplicaRoutingTest.PRIMARY_URL,
+        "spring.jpa.open-in-view=false",
+        "jpashop.replica.enabled=true",
+        "jpashop.replica.urls=" + ReplicaRoutingTest.REPLICA_URL,
+        "jpashop.replica.max-lag=2s",
+        "jpashop.replica.lag-check-interval=1h" // 지연 측정은 테스트에서 직접 호출
+})
+@AutoConfigureMockMvc
+@Import(ReplicaRoutingTest.ReadThenJoinController.class)
+public class ReplicaRoutingTest {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1";
+
+    static JdbcTemplate primary = jdbc(PRIMARY_URL);
+    static JdbcTemplate replica = jdbc(REPLICA_URL);
+
+    @Autowired MockMvc mvc;
+    @Autowired MemberService memberService;
+    @Autowired ReplicaDataSources replicaDataSources;
+
+    @BeforeAll
+    static void migrateReplica() {
+        // 운영에서는 primary 스키마가 복제되지만 여기서는 직접 생성
+        Flyway.configure()
+                .dataSource(replica.getDataSource())
+                .placeholders(Collections.singletonMap("id_allocation_size", "50"))
+                .load()
+                .migrate();
+    }
+
+    @BeforeEach
+    void catchUp() {
+        // replica 가 primary 를 따라잡은 상태
+        Timestamp beat = primary.queryForObject("select beat_at from replica_heartbeat where id = 1", Timestamp.class);
+        replica.update("update replica_heartbeat set beat_at = ? where id = 1", beat);
+        replicaDataSources.check();
+    }
+
+    @Test
+    public void 읽기는_replica_쓰기는_primary() throws Exception {
+        //given
+        String replicaOnly = insertReplicaOnlyMember();
+
+        //when
+        Member member = new Member();
+        member.setName("primary회원" + System.nanoTime());
+        memberService.join(member);
+
+        //then
+        assertTrue(memberService.findMembers().stream().anyMatch(m -> m.getName().equals(replicaOnly)));
+        assertEquals(1, count(primary, member.getName()));
+        assertEquals(0, count(replica, member.getName()));
+    }
+
+    @Test
+    public void replica_지연이_크면_primary에서_읽기() throws Exception {
+        //given
+        String replicaOnly = insertReplicaOnlyMember();
+        replica.update("update replica_heartbeat set beat_at = dateadd('second', -10, beat_at) where id = 1");
+
+        //when
+        replicaDataSources.check();
+
+        //then
+        assertTrue(replicaDataSources.availableReplicas().isEmpty());
+        assertTrue(replicaDataSources.lagMillis("replica-0") >= 10_000);
+        assertTrue(memberService.findMembers().stream().noneMatch(m -> m.getName().equals(replicaOnly)));
+    }
+
+    @Test
+    public void 한_요청에서_읽기_후_쓰기도_primary() throws Exception {
+        //given
+        String replicaOnly = insertReplicaOnlyMember();
+        String name = "요청회원" + System.nanoTime();
+
+        //when: readOnly 조회 -> 가입을 한 요청에서
+        String seenOnReplica = mvc.perform(post("/test/replica/read-then-join")
+                        .param("replicaOnly", replicaOnly)
+                        .param("name", name))
+                .andReturn().getResponse().getContentAsString();
+
+        //then: 조회는 replica, 가입은 primary (조회한 커넥션을 이어서 쓰지 않음)
+        assertEquals("true", seenOnReplica);
+        assertEquals(1, count(primary, name));
+        assertEquals(0, count(replica, name));
+    }
+
+    // 조회 후 쓰기를 한 요청에서 하는 핸들러 (테스트 전용)
+    @RestController
+    static class ReadThenJoinController {
+
+        private final MemberService memberService;
+
+        ReadThenJoinController(MemberService memberService) {
+            this.memberService = memberService;
+        }
+
+        @PostMapping("/test/replica/read-then-join")
+        public boolean readThenJoin(@RequestParam("replicaOnly") String replicaOnly, @RequestParam("name") String name) {
+            boolean seen = memberService.findMembers().stream().anyMatch(m -> m.getName().equals(replicaOnly));
+            Member member = new Member();
+            member.setName(name);
+            memberService.join(member);
+            return seen;
+        }
+    }
+
+    private String insertReplicaOnlyMember() {
+        String name = "replica회원" + System.nanoTime();
+        Long id = replica.queryForObject("select coalesce(max(member_id), 0) + 1000000 from member", Long.class);
+        replica.update("insert into member (member_id, name) values (?, ?)", id, name);
+        return name;
+    }
+
+    private static int count(JdbcTemplate jdbc, String name) {
+        return jdbc.queryForObject("select count(*) from member where name = ?", Integer.class, name);
+    }
+
+    private static JdbcTemplate jdbc(String url) {
+        return new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""));
+    }
+}
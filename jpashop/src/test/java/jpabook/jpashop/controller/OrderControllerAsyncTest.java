@@ -0,0 +1,120 @@
+package jpabook.jpashop.controller;
+
+import jpabook.jpashop.config.AsyncConfig;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.domain.Order;
+import jpabook.jpashop.domain.item.Book;
+import jpabook.jpashop.repository.OrderSearch;
+import jpabook.jpashop.service.ItemService;
+import jpabook.jpashop.service.MemberService;
+import jpabook.jpashop.service.OrderService;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.hikari.maximum-pool-size=2",
+        "jpashop.async.order-search.queue-capacity=1"})
+@AutoConfigureMockMvc
+public class OrderControllerAsyncTest {
+
+    @Autowired MockMvc mvc;
+
+    @Autowired MemberService memberService;
+
+    @Autowired ItemService itemService;
+
+    @Autowired OrderService orderService;
+
+    @Autowired ApplicationContext context;
+
+    @Test
+    public void 주문검색_비동기() throws Exception {
+        //given: 이 테스트에서 만든 회원의 주문 1건 (InitDB 데이터와 섞이지 않도록 회원 이름으로 검색)
+        Member member = new Member();
+        member.setName("비동기회원" + System.nanoTime());
+        Long memberId = memberService.join(member);
+        Book book = new Book();
+        book.setName("비동기책");
+        book.setPrice(10000);
+        book.setStockQuantity(10);
+        itemService.saveItem(book);
+        Long orderId = orderService.order(memberId, book.getId(), 2);
+
+        OrderSearch orderSearch = new OrderSearch();
+        orderSearch.setMemberName(member.getName());
+
+        //when
+        List<Order> orders = orderService.findOrdersAsync(orderSearch).get();
+        MvcResult started = mvc.perform(get("/orders/async").param("memberName", member.getName()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        //then
+        assertEquals(1, orders.size());
+        Order order = orders.get(0);
+        assertEquals(orderId, order.getId());
+        assertTrue(Hibernate.isInitialized(order.getMember()), "트랜잭션 밖에서 쓰는 연관관계는 미리 초기화되어 있어야 한다.");
+        assertTrue(Hibernate.isInitialized(order.getOrderItems()));
+        assertEquals(member.getName(), order.getMember().getName());
+        assertEquals(1, order.getOrderItems().size());
+        assertTrue(Hibernate.isInitialized(order.getOrderItems().get(0).getItem()));
+        assertEquals("비동기책", order.getOrderItems().get(0).getItem().getName());
+        assertEquals(2, order.getOrderItems().get(0).getCount());
+
+        MvcResult rendered = mvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(view().name("orders/orderList"))
+                .andReturn();
+        @SuppressWarnings("unchecked")
+        List<Order> renderedOrders = (List<Order>) rendered.getModelAndView().getModel().get("orders");
+        assertEquals(List.of(orderId), renderedOrders.stream().map(Order::getId).collect(toList()), "검색 조건으로 걸러진 주문만 렌더링해야 한다.");
+        assertTrue(Integer.parseInt(rendered.getResponse().getHeader("X-Sql-Statements")) > 0,
+                "executor 에서 실행한 검색 SQL 도 요청에 집계해야 한다.");
+    }
+
+    @Test
+    public void 주문검색_대기열초과시_503() throws Exception {
+        //given
+        ThreadPoolTaskExecutor orderSearchExecutor = context.getBean(AsyncConfig.ORDER_SEARCH_EXECUTOR, ThreadPoolTaskExecutor.class);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            Runnable blocked = () -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            };
+            for (int i = 1; i <= 2; i++) { // 스레드 2개 점유 (대기열이 1칸이라 하나씩 실행되는 것을 확인하고 넣음)
+                orderSearchExecutor.execute(blocked);
+                while (orderSearchExecutor.getActiveCount() < i) {
+                    Thread.sleep(10);
+                }
+            }
+            orderSearchExecutor.execute(blocked); // 대기열 1개 점유
+
+            //when then
+            mvc.perform(get("/orders/async"))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string("Retry-After", "1"));
+        } finally {
+            release.countDown();
+        }
+    }
+}
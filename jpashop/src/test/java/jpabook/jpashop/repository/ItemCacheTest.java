@@ -0,0 +1,127 @@
+package jpabook.jpashop.repository;
+
+import jpabook.jpashop.domain.item.Book;
+import jpabook.jpashop.domain.item.Item;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 2차 캐시는 트랜잭션 커밋 후에 반영되므로 테스트 트랜잭션(@Transactional) 없이 실행
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class ItemCacheTest {
+
+    @Autowired ItemRepository itemRepository;
+
+    @Autowired PlatformTransactionManager transactionManager;
+
+    @Autowired EntityManagerFactory emf;
+
+    TransactionTemplate tx;
+    Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        statistics = emf.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    public void 상품_단건조회_캐시() throws Exception {
+        //given
+        Long itemId = createBook("캐시 BOOK", 10);
+        tx.execute(status -> itemRepository.findOne(itemId)); // 캐시 적재
+        statistics.clear();
+
+        //when
+        Item item = tx.execute(status -> itemRepository.findOne(itemId));
+
+        //then
+        assertEquals("캐시 BOOK", item.getName());
+        assertEquals(0, statistics.getPrepareStatementCount(), "캐시된 상품은 DB를 조회하지 않는다.");
+        assertTrue(statistics.getSecondLevelCacheHitCount() > 0);
+    }
+
+    @Test
+    public void 상품_목록조회_쿼리캐시() throws Exception {
+        //given
+        createBook("목록 BOOK", 10);
+        int size = tx.execute(status -> itemRepository.findAll()).size(); // 캐시 적재
+        statistics.clear();
+
+        //when
+        List<Item> items = tx.execute(status -> itemRepository.findAll());
+
+        //then
+        assertEquals(size, items.size());
+        assertEquals(0, statistics.getPrepareStatementCount(), "item 테이블이 바뀌지 않았으면 목록도 캐시에서 조회한다.");
+        assertTrue(statistics.getQueryCacheHitCount() > 0);
+    }
+
+    @Test
+    public void 벌크_재고변경시_캐시무효화() throws Exception {
+        //given
+        Long itemId = createBook("재고 BOOK", 10);
+        tx.execute(status -> itemRepository.findOne(itemId));
+        tx.execute(status -> itemRepository.findAll());
+
+        //when
+        tx.executeWithoutResult(status -> itemRepository.removeStock(itemId, 3));
+
+        //then
+        assertEquals(7, tx.execute(status -> itemRepository.findOne(itemId)).getStockQuantity(), "벌크 update 후에는 변경된 재고를 조회해야 한다.");
+        int stock = tx.execute(status -> itemRepository.findAll()).stream()
+                .filter(i -> i.getId().equals(itemId))
+                .findFirst().get()
+                .getStockQuantity();
+        assertEquals(7, stock);
+    }
+
+    @Test
+    public void 원자적_재고변경은_해당_상품만_캐시에서_제거() throws Exception {
+        //given: 상품 5개를 캐시에 적재 (atomic-stock 주문/취소가 쓰는 removeStock/addStock)
+        List<Long> itemIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            itemIds.add(createBook("원자적 BOOK" + i, 10));
+        }
+        itemIds.forEach(id -> tx.execute(status -> itemRepository.findOne(id)));
+        tx.execute(status -> itemRepository.findAll());
+
+        //when
+        tx.executeWithoutResult(status -> itemRepository.removeStock(itemIds.get(0), 3));
+        tx.executeWithoutResult(status -> itemRepository.addStock(itemIds.get(0), 1));
+        statistics.clear();
+        itemIds.forEach(id -> tx.execute(status -> itemRepository.findOne(id)));
+        int stock = tx.execute(status -> itemRepository.findOne(itemIds.get(0))).getStockQuantity();
+        long hits = statistics.getSecondLevelCacheHitCount();
+        long misses = statistics.getSecondLevelCacheMissCount();
+        tx.execute(status -> itemRepository.findAll());
+
+        //then: 바뀐 상품 1개만 DB 에서 다시 읽음 (단건 조회 6번 중 hit 5 / miss 1), 목록 쿼리 캐시도 유지
+        assertEquals(8, stock);
+        assertEquals(1, misses, "재고가 바뀐 상품만 캐시에서 빠져야 한다.");
+        assertEquals(5, hits, "다른 상품과 다시 적재된 상품은 캐시에서 조회해야 한다.");
+        assertEquals(1, statistics.getQueryCacheHitCount(), "재고 변경은 상품 목록 쿼리 캐시를 무효화하지 않는다.");
+    }
+
+    private Long createBook(String name, int stockQuantity) {
+        return tx.execute(status -> {
+            Book book = new Book();
+            book.setName(name);
+            book.setPrice(10000);
+            book.setStockQuantity(stockQuantity);
+            itemRepository.save(book);
+            return book.getId();
+        });
+    }
+}
@@ -0,0 +1,87 @@
+package jpabook.jpashop.repository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.service.MemberService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 필터는 커밋 후에 반영되므로 테스트 트랜잭션(@Transactional) 없이 실행, 이름은 실행마다 다르게
+@SpringBootTest
+public class MemberNameFilterTest {
+
+    @Autowired MemberNameFilter memberNameFilter;
+
+    @Autowired MemberService memberService;
+
+    @Autowired MemberRepository memberRepository;
+
+    @Autowired JdbcTemplate jdbcTemplate;
+
+    @Autowired MeterRegistry meterRegistry;
+
+    @Test
+    public void 새_이름은_DB_조회_없이_가입() throws Exception {
+        //given
+        String name = "filter" + System.nanoTime();
+        double absent = checks("absent");
+
+        //when
+        memberService.join(member(name));
+
+        //then: 필터에 없어서 조회 생략, 커밋 후 필터에 추가되어 다음 가입은 DB 로 확인 후 중복
+        assertEquals(absent + 1, checks("absent"));
+        assertTrue(memberNameFilter.exists(name, n -> true));
+        assertThrows(IllegalStateException.class, () -> memberService.join(member(name)));
+    }
+
+    @Test
+    public void 필터에_없는_중복은_unique_제약으로_막음() throws Exception {
+        //given: JPA 를 거치지 않은 insert (필터에 없음)
+        String name = "filter-jdbc" + System.nanoTime();
+        Long id = jdbcTemplate.queryForObject("select next value for member_seq", Long.class);
+        jdbcTemplate.update("insert into member (member_id, name, order_count, lifetime_spend) values (?, ?, 0, 0)", id, name);
+        assertFalse(memberNameFilter.exists(name, memberRepository::existsByName));
+
+        //when, then
+        assertThrows(IllegalStateException.class, () -> memberService.join(member(name)));
+        assertEquals(1, memberRepository.findByName(name).size());
+    }
+
+    @Test
+    public void 오탐률() throws Exception {
+        //given: 예상 이름 수 10000, 목표 오탐률 1%
+        MemberNameFilter.Bits bits = new MemberNameFilter.Bits(95851, 7);
+        for (int i = 0; i < 10_000; i++) {
+            bits.put("member" + i);
+        }
+
+        //when
+        int falsePositives = 0;
+        for (int i = 10_000; i < 110_000; i++) {
+            if (bits.mightContain("member" + i)) {
+                falsePositives++;
+            }
+        }
+
+        //then: 넣은 이름은 항상 있음, 없는 이름 오탐은 목표 근처
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(bits.mightContain("member" + i));
+        }
+        assertTrue(falsePositives < 1_500, "오탐 " + falsePositives + " / 100000");
+    }
+
+    private double checks(String result) {
+        return meterRegistry.get("jpashop.member.name_filter.checks").tag("result", result).counter().count();
+    }
+
+    private Member member(String name) {
+        Member member = new Member();
+        member.setName(name);
+        return member;
+    }
+}
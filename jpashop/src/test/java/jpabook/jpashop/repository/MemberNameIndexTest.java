@@ -0,0 +1,117 @@
+package jpabook.jpashop.repository;
+
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.domain.Order;
+import jpabook.jpashop.domain.OrderStatus;
+import jpabook.jpashop.domain.item.Book;
+import jpabook.jpashop.service.ItemService;
+import jpabook.jpashop.service.MemberService;
+import jpabook.jpashop.service.OrderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.*;
+
+// 색인은 커밋 후에 반영되므로 테스트 트랜잭션(@Transactional) 없이 실행
+@SpringBootTest
+public class MemberNameIndexTest {
+
+    @Autowired MemberNameIndex memberNameIndex;
+
+    @Autowired MemberService memberService;
+
+    @Autowired MemberRepository memberRepository;
+
+    @Autowired ItemService itemService;
+
+    @Autowired OrderService orderService;
+
+    @Autowired PlatformTransactionManager transactionManager;
+
+    @Test
+    public void 회원가입_이름변경_반영() throws Exception {
+        //given
+        String suffix = String.valueOf(System.nanoTime());
+        Long id = memberService.join(member("김색인" + suffix));
+
+        //when
+        Optional<List<Long>> found = memberNameIndex.findMemberIds("색인" + suffix);
+        memberService.update(id, "이변경" + suffix);
+
+        //then
+        assertEquals(Optional.of(List.of(id)), found, "이름 중간 부분으로도 찾아야 한다.");
+        assertEquals(Optional.of(List.of()), memberNameIndex.findMemberIds("색인" + suffix), "이전 이름으로는 찾으면 안 된다.");
+        assertEquals(Optional.of(List.of(id)), memberNameIndex.findMemberIds("변경" + suffix));
+    }
+
+    @Test
+    public void 롤백되면_반영안함() throws Exception {
+        //given
+        String name = "롤백회원" + System.nanoTime();
+
+        //when
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            memberRepository.save(member(name));
+            status.setRollbackOnly();
+        });
+
+        //then
+        assertEquals(Optional.of(List.of()), memberNameIndex.findMemberIds(name));
+    }
+
+    @Test
+    public void 주문검색_색인사용() throws Exception {
+        //given
+        String suffix = String.valueOf(System.nanoTime());
+        Long memberId = memberService.join(member("주문회원" + suffix));
+        Book book = new Book();
+        book.setName("JPA");
+        book.setPrice(10000);
+        book.setStockQuantity(10);
+        itemService.saveItem(book);
+        Long orderId = orderService.order(memberId, book.getId(), 1);
+
+        OrderSearch orderSearch = new OrderSearch();
+        orderSearch.setOrderStatus(OrderStatus.ORDER);
+        orderSearch.setMemberName("회원" + suffix);
+
+        //when
+        List<Order> orders = orderService.findOrders(orderSearch);
+
+        //then
+        assertTrue(memberNameIndex.findMemberIds(orderSearch.getMemberName()).isPresent());
+        assertEquals(List.of(orderId), orders.stream().map(Order::getId).collect(toList()));
+    }
+
+    @Test
+    public void 색인으로_못찾는_검색어() throws Exception {
+        assertFalse(memberNameIndex.findMemberIds("김색").isPresent(), "3글자 미만은 like 로 조회해야 한다.");
+    }
+
+    @Test
+    public void 재구성() throws Exception {
+        //given
+        String suffix = String.valueOf(System.nanoTime());
+        Long id = memberService.join(member("재구성" + suffix));
+
+        //when
+        int indexed = memberService.rebuildNameIndex();
+
+        //then
+        assertTrue(indexed >= 1);
+        assertEquals(Optional.of(List.of(id)), memberNameIndex.findMemberIds("구성" + suffix));
+    }
+
+    private Member member(String name) {
+        Member member = new Member();
+        member.setName(name);
+        return member;
+    }
+}
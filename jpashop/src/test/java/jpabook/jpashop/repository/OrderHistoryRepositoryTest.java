@@ -0,0 +1,116 @@
+package jpabook.jpashop.repository;
+
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.domain.MemberOrderSummary;
+import jpabook.jpashop.domain.item.Book;
+import jpabook.jpashop.repository.order.history.OrderHistoryDTO;
+import jpabook.jpashop.repository.order.history.OrderHistoryRepository;
+import jpabook.jpashop.service.OrderService;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+public class OrderHistoryRepositoryTest {
+
+    @Autowired EntityManager em;
+
+    @Autowired OrderService orderService;
+
+    @Autowired OrderHistoryRepository orderHistoryRepository;
+
+    @Test
+    public void 최근주문부터_커서페이징() throws Exception {
+        //given
+        Member member = createMember();
+        Book book = createBook(10000);
+        Long first = orderService.order(member.getId(), book.getId(), 1);
+        Long second = orderService.order(member.getId(), book.getId(), 2);
+        Long third = orderService.order(member.getId(), book.getId(), 3);
+        em.flush();
+        em.clear();
+
+        //when
+        List<OrderHistoryDTO> page1 = orderHistoryRepository.findByMemberBefore(member.getId(), null, 2);
+        OrderHistoryDTO last = page1.get(page1.size() - 1);
+        List<OrderHistoryDTO> page2 = orderHistoryRepository.findByMemberBefore(member.getId(), new OrderCursor(last.getOrderDate(), last.getOrderId()), 2);
+
+        //then
+        assertEquals(List.of(third, second), page1.stream().map(OrderHistoryDTO::getOrderId).collect(toList()));
+        assertEquals(List.of(first), page2.stream().map(OrderHistoryDTO::getOrderId).collect(toList()));
+        assertEquals(30000, page1.get(0).getTotalPrice());
+        assertFalse(Hibernate.isInitialized(em.find(Member.class, member.getId()).getOrders()), "주문 컬렉션은 읽지 않아야 한다.");
+    }
+
+    @Test
+    public void 주문요약_주문_취소시_갱신() throws Exception {
+        //given
+        Member member = createMember();
+        Book book = createBook(10000);
+        orderService.order(member.getId(), book.getId(), 1);
+        Long canceled = orderService.order(member.getId(), book.getId(), 2);
+
+        //when
+        orderService.cancelOrder(canceled);
+        em.flush();
+        em.clear();
+
+        //then
+        Member found = em.find(Member.class, member.getId());
+        MemberOrderSummary summary = found.getOrderSummary();
+        assertEquals(1, summary.getOrderCount(), "취소한 주문은 빠져야 한다.");
+        assertEquals(10000, summary.getLifetimeSpend());
+        assertNotNull(summary.getLastOrderDate());
+        assertFalse(Hibernate.isInitialized(found.getOrders()));
+    }
+
+    @Test
+    public void 주문요약_오래된_회원_엔티티가_덮어쓰지_않음() throws Exception {
+        //given: 주문 전에 읽어 둔 회원 엔티티 (요약 값이 0)
+        Member member = createMember();
+        Book book = createBook(10000);
+        em.flush();
+        em.clear();
+        Member stale = em.find(Member.class, member.getId());
+
+        //when: 요약은 DB 에서 증가, 이후 같은 엔티티의 다른 컬럼을 변경해서 update
+        orderService.order(member.getId(), book.getId(), 1);
+        orderService.order(member.getId(), book.getId(), 2);
+        stale.setName(stale.getName() + "변경");
+        em.flush();
+        em.clear();
+
+        //then
+        MemberOrderSummary summary = em.find(Member.class, member.getId()).getOrderSummary();
+        assertEquals(2, summary.getOrderCount(), "회원 엔티티 update 가 요약 컬럼을 덮어쓰면 안 된다.");
+        assertEquals(30000, summary.getLifetimeSpend());
+        assertNotNull(summary.getLastOrderDate());
+    }
+
+    private Member createMember() {
+        Member member = new Member();
+        member.setName("이력회원" + System.nanoTime());
+        member.setAddress(new Address("서울", "강가", "123-123"));
+        em.persist(member);
+        return member;
+    }
+
+    private Book createBook(int price) {
+        Book book = new Book();
+        book.setName("이력책");
+        book.setPrice(price);
+        book.setStockQuantity(100);
+        em.persist(book);
+        return book;
+    }
+}
@@ -0,0 +1,150 @@
+package jpabook.jpashop.repository;
+
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Delivery;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.domain.Order;
+import jpabook.jpashop.domain.OrderItem;
+import jpabook.jpashop.domain.OrderStatus;
+import jpabook.jpashop.domain.item.Book;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+public class OrderRepositoryTest {
+
+    @Autowired EntityManager em;
+
+    @Autowired OrderRepository orderRepository;
+
+    @Test
+    public void 커서_페이징() throws Exception {
+        //given
+        LocalDateTime sameTime = LocalDateTime.of(2021, 1, 1, 0, 0);
+        for (int i = 0; i < 5; i++) {
+            createOrder(sameTime); // 주문시간이 같아도 order_id로 순서가 정해져야 함
+        }
+        em.flush();
+        em.clear();
+        List<Order> all = orderRepository.findAllWithMemberDeliveryAfter(null, 1000);
+
+        //when
+        List<Long> paged = new ArrayList<>();
+        OrderCursor cursor = null;
+        while (true) {
+            List<Order> page = orderRepository.findAllWithMemberDeliveryAfter(cursor, 2);
+            page.forEach(o -> paged.add(o.getId()));
+            if (page.size() < 2) break;
+            cursor = OrderCursor.decode(OrderCursor.of(page.get(page.size() - 1)).encode());
+        }
+
+        //then
+        assertEquals(all.size(), paged.size(), "누락, 중복 없이 전체 주문을 조회해야 한다.");
+        for (int i = 0; i < all.size(); i++) {
+            assertEquals(all.get(i).getId(), paged.get(i));
+        }
+    }
+
+    @Test
+    public void 주문검색_조건조합() throws Exception {
+        //given
+        String name = "검색회원" + System.nanoTime();
+        String part = name.substring(2); // 부분 일치
+        OrderSearch[] searches = {
+                search(null, null), search(OrderStatus.ORDER, null), search(null, part), search(OrderStatus.ORDER, part),
+                search(OrderStatus.CANCEL, part)};
+        int[] before = countAll(searches);
+
+        LocalDateTime now = LocalDateTime.now();
+        createOrder(now).getMember().setName(name + "1"); // 회원 이름은 unique
+        Order canceled = createOrder(now);
+        canceled.getMember().setName(name + "2");
+        canceled.setStatus(OrderStatus.CANCEL);
+        em.flush();
+        em.clear();
+
+        //when
+        int[] after = countAll(searches);
+
+        //then
+        assertEquals(2, after[0] - before[0]);
+        assertEquals(1, after[1] - before[1]);
+        assertEquals(2, after[2], "이름은 부분 일치(like %name%)로 검색해야 한다.");
+        assertEquals(1, after[3]);
+        assertEquals(1, after[4]);
+    }
+
+    @Test
+    public void 주문검색_like_특수문자는_그대로_검색() throws Exception {
+        //given: 같은 트랜잭션에서 추가한 회원이라 색인 대신 like 로 검색
+        String prefix = "특수" + System.nanoTime();
+        String[] names = {"50%off", "50xoff", "a_b", "axb", "c\\d", "cd"};
+        for (String name : names) {
+            createOrder(LocalDateTime.now()).getMember().setName(prefix + name);
+        }
+        em.flush();
+        em.clear();
+
+        //when, then: %, _ 는 와일드카드가 아니고, \ 도 문자 그대로
+        assertEquals(prefix + "50%off", memberNameOf(search(null, prefix + "50%")));
+        assertEquals(prefix + "a_b", memberNameOf(search(null, prefix + "a_b")));
+        assertEquals(prefix + "c\\d", memberNameOf(search(OrderStatus.ORDER, prefix + "c\\d")));
+        assertEquals("%50\\%a\\_b\\\\%", OrderRepository.containsPattern("50%a_b\\"));
+    }
+
+    @Test
+    public void 잘못된_커서() throws Exception {
+        assertThrows(IllegalArgumentException.class, () -> OrderCursor.decode("not-a-cursor"));
+    }
+
+    private String memberNameOf(OrderSearch orderSearch) {
+        List<Order> orders = orderRepository.findAllByCriteria(orderSearch);
+        assertEquals(1, orders.size(), orderSearch.getMemberName());
+        return orders.get(0).getMember().getName();
+    }
+
+    private int[] countAll(OrderSearch... searches) {
+        int[] counts = new int[searches.length];
+        for (int i = 0; i < searches.length; i++) {
+            counts[i] = orderRepository.findAllByCriteria(searches[i]).size();
+        }
+        return counts;
+    }
+
+    private OrderSearch search(OrderStatus status, String memberName) {
+        OrderSearch orderSearch = new OrderSearch();
+        orderSearch.setOrderStatus(status);
+        orderSearch.setMemberName(memberName);
+        return orderSearch;
+    }
+
+    private Order createOrder(LocalDateTime orderDate) {
+        Member member = new Member();
+        member.setName("member" + System.nanoTime());
+        member.setAddress(new Address("서울", "강가", "123-123"));
+        em.persist(member);
+
+        Book book = new Book();
+        book.setName("JPA");
+        book.setPrice(10000);
+        book.setStockQuantity(10);
+        em.persist(book);
+
+        Delivery delivery = new Delivery();
+        delivery.setAddress(member.getAddress());
+        Order order = Order.createOrder(member, delivery, OrderItem.createOrderItem(book, 10000, 1));
+        order.setOrderDate(orderDate);
+        em.persist(order);
+        return order;
+    }
+}
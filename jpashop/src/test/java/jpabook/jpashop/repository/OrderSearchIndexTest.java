@@ -0,0 +1,189 @@
+package jpabook.jpashop.repository;
+
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Delivery;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.domain.Order;
+import jpabook.jpashop.domain.OrderItem;
+import jpabook.jpashop.domain.OrderStatus;
+import jpabook.jpashop.domain.item.Book;
+import jpabook.jpashop.repository.order.history.OrderHistoryRepository;
+import jpabook.jpashop.repository.order.query.OrderQueryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 주문 검색 쿼리의 실행계획(EXPLAIN)에 table scan 이 없는지 검증
+ * 실제로 실행된 SQL(바인딩 값 포함)을 p6spy 로 가로채서 그대로 EXPLAIN
+ */
+@SpringBootTest
+@Transactional
+public class OrderSearchIndexTest {
+
+    private static final Pattern TABLE_SCAN = Pattern.compile("PUBLIC\\.(\\w+)\\.tableScan");
+
+    @Autowired EntityManager em;
+
+    @Autowired OrderRepository orderRepository;
+
+    @Autowired OrderQueryRepository orderQueryRepository;
+
+    @Autowired OrderHistoryRepository orderHistoryRepository;
+
+    @Autowired SqlCapture sqlCapture;
+
+    @BeforeEach
+    public void setUp() {
+        for (int i = 0; i < 20; i++) {
+            createOrder("member" + i, i % 2 == 0 ? OrderStatus.ORDER : OrderStatus.CANCEL);
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    public void 주문검색_상태_회원명() throws Exception {
+        OrderSearch orderSearch = new OrderSearch();
+        orderSearch.setOrderStatus(OrderStatus.ORDER);
+        orderSearch.setMemberName("member2");
+
+        assertNoTableScan(capture(() -> orderRepository.findAll(orderSearch)));
+        assertNoTableScan(capture(() -> orderRepository.findAllByCriteria(orderSearch)));
+    }
+
+    @Test
+    public void 주문검색_상태() throws Exception {
+        OrderSearch orderSearch = new OrderSearch();
+        orderSearch.setOrderStatus(OrderStatus.CANCEL);
+
+        assertNoTableScan(capture(() -> orderRepository.findAll(orderSearch)));
+    }
+
+    @Test
+    public void 주문검색_회원명() throws Exception {
+        OrderSearch orderSearch = new OrderSearch();
+        orderSearch.setMemberName("member3");
+
+        assertNoTableScan(capture(() -> orderRepository.findAll(orderSearch)));
+    }
+
+    @Test
+    public void 주문상품_조인() throws Exception {
+        // 조건 없는 전체 조회라 드라이빙 테이블 하나는 전체를 읽고, 나머지는 인덱스로 조인해야 함
+        assertTableScans(capture(() -> orderRepository.findAllWithItem()), 1);
+    }
+
+    @Test
+    public void 주문상품_in조회() throws Exception {
+        List<String> sqls = capture(() -> orderQueryRepository.findAllByDTO_optimization());
+
+        // 1번째 주문 전체 조회는 제외, order_id in (...) 쿼리만 검증
+        List<String> orderItemQueries = sqls.stream()
+                .filter(sql -> sql.contains("order_item") && sql.contains(" in ("))
+                .collect(toList());
+        assertEquals(1, orderItemQueries.size());
+        assertNoTableScan(orderItemQueries);
+    }
+
+    @Test
+    public void 회원주문이력() throws Exception {
+        // 첫 페이지만 검증 (p6spy 가 남기는 timestamp 값 형식은 H2 explain 에서 파싱 못함)
+        Long memberId = em.createQuery("select m.id from Member m where m.name = 'member4'", Long.class).getSingleResult();
+
+        assertNoTableScan(capture(() -> orderHistoryRepository.findByMemberBefore(memberId, null, 20)));
+    }
+
+    private List<String> capture(Runnable query) {
+        sqlCapture.clear();
+        query.run();
+        return sqlCapture.selects();
+    }
+
+    private void assertNoTableScan(List<String> sqls) {
+        assertTableScans(sqls, 0);
+    }
+
+    /**
+     * 쿼리마다 table scan 이 maxScans 개 이하인지 검증
+     */
+    private void assertTableScans(List<String> sqls, int maxScans) {
+        assertFalse(sqls.isEmpty(), "실행된 SQL이 없습니다.");
+        for (String sql : sqls) {
+            String plan = (String) em.createNativeQuery("explain " + sql).getSingleResult();
+            List<String> scanned = new ArrayList<>();
+            Matcher matcher = TABLE_SCAN.matcher(plan);
+            while (matcher.find()) {
+                scanned.add(matcher.group(1));
+            }
+            assertTrue(scanned.size() <= maxScans, scanned + " 테이블을 인덱스 없이 전체 조회합니다.\n" + plan);
+        }
+    }
+
+    private void createOrder(String memberName, OrderStatus status) {
+        Member member = new Member();
+        member.setName(memberName);
+        member.setAddress(new Address("서울", "강가", "123-123"));
+        em.persist(member);
+
+        Book book = new Book();
+        book.setName("JPA " + memberName);
+        book.setPrice(10000);
+        book.setStockQuantity(10);
+        em.persist(book);
+
+        Delivery delivery = new Delivery();
+        delivery.setAddress(member.getAddress());
+        Order order = Order.createOrder(member, delivery, OrderItem.createOrderItem(book, 10000, 1));
+        order.setStatus(status);
+        em.persist(order);
+    }
+
+    @TestConfiguration
+    static class SqlCaptureConfig {
+
+        @Bean
+        SqlCapture sqlCapture() {
+            return new SqlCapture();
+        }
+    }
+
+    // 실행된 select 문을 바인딩 값이 들어간 형태로 저장
+    static class SqlCapture extends SimpleJdbcEventListener {
+
+        private final List<String> selects = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+            String sql = statementInformation.getSqlWithValues();
+            if (sql.trim().toLowerCase().startsWith("select")) {
+                selects.add(sql);
+            }
+        }
+
+        void clear() {
+            selects.clear();
+        }
+
+        List<String> selects() {
+            return new ArrayList<>(selects);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package jpabook.jpashop.repository.order.query;
+
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.OrderStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderFlatAssemblerTest {
+
+    @Test
+    public void order_id_순_row를_주문별로_조립() throws Exception {
+        //given: 주문 1 (상품 2개), 주문 2 (상품 1개), 주문 3 (상품 2개)
+        List<OrderFlatDTO> flats = Arrays.asList(
+                flat(1L, "A", 1000, 1), flat(1L, "B", 2000, 2),
+                flat(2L, "C", 3000, 3),
+                flat(3L, "A", 1000, 4), flat(3L, "D", 4000, 5));
+
+        //when
+        List<OrderQueryDTO> orders = OrderFlatAssembler.assemble(flats);
+
+        //then: 조회 순서 유지, 주문 정보는 첫 row, 주문상품은 row 순서대로
+        assertEquals(3, orders.size());
+        assertEquals(Arrays.asList(1L, 2L, 3L), Arrays.asList(orders.get(0).getOrderId(), orders.get(1).getOrderId(), orders.get(2).getOrderId()));
+        assertEquals("member1", orders.get(0).getName());
+        assertEquals(OrderStatus.ORDER, orders.get(0).getOrderStatus());
+        assertEquals("city1", orders.get(0).getAddress().getCity());
+        assertEquals(itemNames("A", "B"), itemNames(orders.get(0)));
+        assertEquals(itemNames("C"), itemNames(orders.get(1)));
+        assertEquals(itemNames("A", "D"), itemNames(orders.get(2)));
+        OrderItemQueryDTO item = orders.get(2).getOrderItems().get(1);
+        assertEquals(3L, item.getOrderId());
+        assertEquals(4000, item.getOrderPrice());
+        assertEquals(5, item.getCount());
+    }
+
+    @Test
+    public void row_하나짜리_주문() throws Exception {
+        //when
+        List<OrderQueryDTO> orders = OrderFlatAssembler.assemble(Collections.singletonList(flat(7L, "A", 1000, 1)));
+
+        //then
+        assertEquals(1, orders.size());
+        assertEquals(7L, orders.get(0).getOrderId());
+        assertEquals(itemNames("A"), itemNames(orders.get(0)));
+    }
+
+    @Test
+    public void 빈_입력() throws Exception {
+        //when, then
+        assertTrue(OrderFlatAssembler.assemble(Collections.emptyList()).isEmpty());
+    }
+
+    private static OrderFlatDTO flat(Long orderId, String itemName, int orderPrice, int count) {
+        return new OrderFlatDTO(orderId, "member" + orderId, LocalDateTime.of(2021, 1, 1, 0, 0), OrderStatus.ORDER,
+                new Address("city" + orderId, "street", "zipcode"), 10000, itemName, orderPrice, count);
+    }
+
+    private static List<String> itemNames(String... names) {
+        return Arrays.asList(names);
+    }
+
+    private static List<String> itemNames(OrderQueryDTO order) {
+        return Arrays.asList(order.getOrderItems().stream().map(OrderItemQueryDTO::getItemName).toArray(String[]::new));
+    }
+}
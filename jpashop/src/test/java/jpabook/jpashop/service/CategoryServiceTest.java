@@ -0,0 +1,111 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.domain.item.Book;
+import jpabook.jpashop.domain.item.Item;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.*;
+
+// 트리 스냅샷은 커밋 후에 반영되므로 테스트 트랜잭션(@Transactional) 없이 실행
+@SpringBootTest
+public class CategoryServiceTest {
+
+    @Autowired CategoryService categoryService;
+
+    @Autowired ItemService itemService;
+
+    @Test
+    public void 하위카테고리_상품조회() throws Exception {
+        //given
+        Long root = categoryService.createCategory("도서", null);
+        Long child = categoryService.createCategory("IT", root);
+        Long grandChild = categoryService.createCategory("JPA", child);
+        Long other = categoryService.createCategory("음반", null);
+
+        Long book1 = addBook(child, "IT BOOK");
+        Long book2 = addBook(grandChild, "JPA BOOK");
+        addBook(other, "ALBUM");
+
+        //when
+        List<Long> items = itemIds(categoryService.findItemsInSubtree(root));
+
+        //then
+        assertEquals(List.of(book1, book2), items, "하위 카테고리의 상품까지 모두 조회해야 한다.");
+        assertEquals(List.of(book2), itemIds(categoryService.findItemsInSubtree(grandChild)));
+    }
+
+    @Test
+    public void 카테고리_이동() throws Exception {
+        //given
+        Long root = categoryService.createCategory("도서", null);
+        Long child = categoryService.createCategory("IT", root);
+        Long grandChild = categoryService.createCategory("JPA", child);
+        Long other = categoryService.createCategory("음반", null);
+        Long book = addBook(grandChild, "JPA BOOK");
+
+        //when
+        categoryService.moveCategory(child, other);
+
+        //then
+        assertTrue(categoryService.findItemsInSubtree(root).isEmpty(), "이동한 하위 트리의 상품은 이전 조상에서 빠져야 한다.");
+        assertEquals(List.of(book), itemIds(categoryService.findItemsInSubtree(other)));
+
+        CategoryTree tree = categoryService.getTree();
+        assertTrue(tree.getChildren(root).isEmpty());
+        assertEquals(List.of(child), tree.getChildren(other).stream().map(CategoryTree.Node::getId).collect(toList()));
+        assertEquals(other, tree.get(child).getParentId());
+        assertEquals(List.of(grandChild), tree.get(child).getChildIds(), "하위 카테고리는 함께 이동한다.");
+    }
+
+    @Test
+    public void 하위카테고리로_이동불가() throws Exception {
+        //given
+        Long root = categoryService.createCategory("도서", null);
+        Long child = categoryService.createCategory("IT", root);
+
+        //when
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
+            categoryService.moveCategory(root, child);
+        });
+
+        //then
+        assertEquals("자신의 하위 카테고리로 이동할 수 없습니다.", exception.getMessage());
+    }
+
+    @Test
+    public void 카테고리_트리_스냅샷() throws Exception {
+        //given
+        categoryService.getTree(); // 스냅샷 로딩 이후의 변경도 반영되어야 함
+        Long root = categoryService.createCategory("도서", null);
+        Long child = categoryService.createCategory("IT", root);
+
+        //when
+        CategoryTree tree = categoryService.getTree();
+
+        //then
+        assertEquals("IT", tree.get(child).getName());
+        assertEquals(root, tree.get(child).getParentId());
+        assertTrue(tree.getRoots().stream().anyMatch(node -> node.getId().equals(root)));
+    }
+
+    private Long addBook(Long categoryId, String name) {
+        Book book = new Book();
+        book.setName(name);
+        book.setPrice(10000);
+        book.setStockQuantity(10);
+        itemService.saveItem(book);
+        categoryService.addItem(categoryId, book.getId());
+        return book.getId();
+    }
+
+    private List<Long> itemIds(List<Item> items) {
+        return items.stream()
+                .map(Item::getId)
+                .collect(toList());
+    }
+}
@@ -0,0 +1,46 @@
+package jpabook.jpashop.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CategoryTreeHolderTest {
+
+    @Test
+    public void 로딩중_커밋된_변경이_있으면_다시_로딩() throws Exception {
+        //given: 첫 로딩이 DB 를 읽은 뒤, 결과를 반영하기 전에 카테고리 추가가 커밋됨
+        AtomicInteger loads = new AtomicInteger();
+        CategoryTreeHolder[] holder = new CategoryTreeHolder[1];
+        holder[0] = new CategoryTreeHolder(() -> {
+            if (loads.incrementAndGet() == 1) {
+                holder[0].applyCommitted(tree -> tree.withCategory(1L, "도서", null));
+                return CategoryTree.EMPTY; // 커밋 전에 읽은 낡은 결과
+            }
+            return CategoryTree.of(Collections.singletonList(new Object[]{1L, "도서", null}));
+        });
+
+        //when
+        CategoryTree tree = holder[0].get();
+
+        //then
+        assertEquals(2, loads.get(), "낡은 스냅샷은 버리고 다시 로딩해야 한다.");
+        assertNotNull(tree.get(1L));
+        assertSame(tree, holder[0].get(), "로딩 후에는 DB 를 다시 읽지 않는다.");
+    }
+
+    @Test
+    public void 로딩후_커밋된_변경은_스냅샷에_반영() throws Exception {
+        //given
+        CategoryTreeHolder holder = new CategoryTreeHolder(() -> CategoryTree.EMPTY);
+        holder.get();
+
+        //when
+        holder.applyCommitted(tree -> tree.withCategory(2L, "음반", null));
+
+        //then
+        assertEquals("음반", holder.get().get(2L).getName());
+    }
+}
@@ -1,6 +1,7 @@
 package jpabook.jpashop.service;
 
 import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.DeliveryStatus;
 import jpabook.jpashop.domain.Member;
 import jpabook.jpashop.domain.Order;
 import jpabook.jpashop.domain.OrderStatus;
@@ -14,6 +15,9 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityManager;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -27,6 +31,8 @@ public class OrderServiceTest {
 
     @Autowired OrderRepository orderRepository;
 
+    @Autowired OrderTotalPriceReconciler orderTotalPriceReconciler;
+
     @Test
     public void 상품주문() throws Exception {
         //given
@@ -65,6 +71,28 @@ public class OrderServiceTest {
         assertEquals(10, item.getStockQuantity(), "주문이 취소된 상품은 그만큼 재고가 증가해야 한다.");
     }
 
+    @Test
+    public void 주문취소_두번() throws Exception {
+        //given
+        Member member = createMember();
+        Book item = createBook("book", 10000, 10);
+        Long keep = orderService.order(member.getId(), item.getId(), 1);
+        Long orderId = orderService.order(member.getId(), item.getId(), 2);
+        orderService.cancelOrder(orderId);
+
+        //when
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> orderService.cancelOrder(orderId));
+        em.flush();
+        em.clear();
+
+        //then: 재고, 회원 주문 요약은 첫 번째 취소만 반영
+        assertEquals("이미 취소된 주문입니다.", exception.getMessage());
+        assertEquals(9, em.find(Book.class, item.getId()).getStockQuantity(), "두 번째 취소에서 재고가 또 늘면 안 된다.");
+        assertEquals(1, em.find(Member.class, member.getId()).getOrderSummary().getOrderCount());
+        assertEquals(10000, em.find(Member.class, member.getId()).getOrderSummary().getLifetimeSpend());
+        assertEquals(OrderStatus.ORDER, orderRepository.findOne(keep).getStatus());
+    }
+
     @Test
     public void 상품주문_재고수량초과() throws Exception {
         //given
@@ -81,6 +109,133 @@ public class OrderServiceTest {
         assertEquals(exception.getMessage(), "need more stock");
     }
 
+    @Test
+    public void 여러주문_일괄생성() throws Exception {
+        //given
+        Member member1 = createMember();
+        Member member2 = createMember();
+        Book book1 = createBook("JPA1", 10000, 10);
+        Book book2 = createBook("JPA2", 20000, 10);
+
+        OrderRequest request1 = createOrderRequest(member1, createOrderLine(book1, 2), createOrderLine(book2, 3));
+        OrderRequest request2 = createOrderRequest(member2, createOrderLine(book1, 1));
+
+        //when
+        List<Long> orderIds = orderService.placeOrders(Arrays.asList(request1, request2));
+        em.flush();
+        em.clear();
+
+        //then
+        assertEquals(2, orderIds.size());
+        Order order1 = orderRepository.findOne(orderIds.get(0));
+        assertEquals(2, order1.getOrderItems().size(), "주문 하나에 여러 상품이 담겨야 한다.");
+        assertEquals(10000 * 2 + 20000 * 3, order1.getTotalPrice());
+        assertEquals(member2.getId(), orderRepository.findOne(orderIds.get(1)).getMember().getId());
+        assertEquals(7, em.find(Book.class, book1.getId()).getStockQuantity(), "주문 수량만큼 재고가 줄어야 한다.");
+        assertEquals(7, em.find(Book.class, book2.getId()).getStockQuantity());
+    }
+
+    @Test
+    public void 여러주문_일괄생성_잘못된_요청() throws Exception {
+        //given
+        Member member = createMember();
+        Book book = createBook("JPA", 10000, 10);
+
+        //when, then: 엔티티 조회 전에 거부, 재고는 그대로
+        assertThrows(IllegalArgumentException.class, () -> orderService.placeOrders(null));
+        assertThrows(IllegalArgumentException.class, () -> orderService.placeOrders(Collections.emptyList()));
+        assertThrows(IllegalArgumentException.class, () -> orderService.placeOrders(Arrays.asList(createOrderRequest(member))));
+        assertThrows(IllegalArgumentException.class, () -> orderService.placeOrders(Arrays.asList(createOrderRequest(member, createOrderLine(book, 0)))));
+        assertThrows(IllegalArgumentException.class, () -> orderService.placeOrders(Arrays.asList(createOrderRequest(member, createOrderLine(book, -5)))));
+        assertEquals(10, book.getStockQuantity(), "음수 수량으로 재고가 늘면 안 된다.");
+    }
+
+    @Test
+    public void 상품_주문_일괄취소() throws Exception {
+        //given: book1 을 주문한 주문 3건 (1건은 배송 완료), book2 만 주문한 주문 1건
+        Member member1 = createMember();
+        Member member2 = createMember();
+        Book book1 = createBook("JPA1", 10000, 10);
+        Book book2 = createBook("JPA2", 20000, 10);
+        List<Long> orderIds = orderService.placeOrders(Arrays.asList(
+                createOrderRequest(member1, createOrderLine(book1, 2), createOrderLine(book2, 1)),
+                createOrderRequest(member1, createOrderLine(book1, 1)),
+                createOrderRequest(member2, createOrderLine(book1, 3)),
+                createOrderRequest(member2, createOrderLine(book2, 4))));
+        orderRepository.findOne(orderIds.get(2)).getDelivery().setStatus(DeliveryStatus.COMPLITE);
+        em.flush();
+
+        //when
+        int canceled = orderService.cancelOrdersByItem(book1.getId());
+
+        //then: 영속성 컨텍스트의 엔티티는 분리되어 DB 값으로 다시 읽음
+        assertEquals(2, canceled);
+        assertFalse(em.contains(book1), "벌크 update 로 바뀐 엔티티는 분리되어야 한다.");
+        assertEquals(OrderStatus.CANCEL, orderRepository.findOne(orderIds.get(0)).getStatus());
+        assertEquals(OrderStatus.CANCEL, orderRepository.findOne(orderIds.get(1)).getStatus());
+        assertEquals(OrderStatus.ORDER, orderRepository.findOne(orderIds.get(2)).getStatus(), "배송 완료된 주문은 취소되지 않는다.");
+        assertEquals(10 - 3, em.find(Book.class, book1.getId()).getStockQuantity(), "취소된 주문 수량만큼 재고가 돌아와야 한다.");
+        assertEquals(10 - 4, em.find(Book.class, book2.getId()).getStockQuantity());
+        assertEquals(0, em.find(Member.class, member1.getId()).getOrderSummary().getOrderCount());
+        assertEquals(0, em.find(Member.class, member1.getId()).getOrderSummary().getLifetimeSpend());
+        assertEquals(2, em.find(Member.class, member2.getId()).getOrderSummary().getOrderCount());
+        assertEquals(0, orderService.cancelOrders(orderIds.subList(0, 3)), "이미 취소, 배송 완료된 주문은 건너뛴다.");
+    }
+
+    @Test
+    public void 주문총액_검증후_수정() throws Exception {
+        //given
+        Member member = createMember();
+        Book book = createBook("JPA", 10000, 10);
+        Long orderId = orderService.order(member.getId(), book.getId(), 3);
+        orderRepository.updateTotalPrice(orderId, 1); // 컬럼만 주문상품 합계와 다르게
+
+        //when
+        OrderTotalPriceReconciler.Result checked = orderTotalPriceReconciler.reconcile(false);
+        OrderTotalPriceReconciler.Result fixed = orderTotalPriceReconciler.reconcile(true);
+        em.clear();
+
+        //then
+        assertTrue(checked.getSampleOrderIds().contains(orderId), "합계와 다른 주문을 찾아야 한다.");
+        assertTrue(fixed.getSampleOrderIds().contains(orderId));
+        assertFalse(orderTotalPriceReconciler.reconcile(false).getSampleOrderIds().contains(orderId), "수정 후에는 불일치가 없어야 한다.");
+        assertEquals(10000 * 3, orderRepository.findOne(orderId).getTotalPrice());
+    }
+
+    @Test
+    public void 주문취소는_총액_컬럼을_고치지_않음() throws Exception {
+        //given
+        Member member = createMember();
+        Book book = createBook("JPA", 10000, 10);
+        Long orderId = orderService.order(member.getId(), book.getId(), 3);
+        orderRepository.updateTotalPrice(orderId, 1); // 컬럼만 주문상품 합계와 다르게
+        em.flush();
+        em.clear();
+
+        //when
+        orderService.cancelOrder(orderId);
+        em.flush();
+        em.clear();
+
+        //then: 취소는 저장된 총액을 그대로 두고, 불일치는 검증 작업에 남음
+        assertEquals(1, orderRepository.findOne(orderId).getTotalPrice());
+        assertTrue(orderTotalPriceReconciler.reconcile(false).getSampleOrderIds().contains(orderId), "취소가 불일치를 숨기면 안 된다.");
+    }
+
+    private OrderRequest createOrderRequest(Member member, OrderLineRequest... lines) {
+        OrderRequest request = new OrderRequest();
+        request.setMemberId(member.getId());
+        request.setOrderLines(Arrays.asList(lines));
+        return request;
+    }
+
+    private OrderLineRequest createOrderLine(Item item, int count) {
+        OrderLineRequest line = new OrderLineRequest();
+        line.setItemId(item.getId());
+        line.setCount(count);
+        return line;
+    }
+
     private Book createBook(String name, int price, int stockQuantity) {
         Book book = new Book();
         book.setName(name);
@@ -94,6 +249,7 @@ public class OrderServiceTest {
 
     private Member createMember() {
         Member member = new Member();
+        member.setName("회원" + System.nanoTime()); // 회원 이름은 unique
         member.setAddress(new Address("서울시", "강남구", "123-123"));
 
         em.persist(member);
@@ -0,0 +1,91 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.domain.item.Book;
+import jpabook.jpashop.domain.item.Item;
+import jpabook.jpashop.exception.NotEnoughStockException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 실제로 커밋되어야 하므로 @Transactional 없이 실행
+@SpringBootTest(properties = "jpashop.order.atomic-stock=true")
+public class StockConcurrencyTest {
+
+    static final int THREADS = 64;
+    static final int ORDERS_PER_THREAD = 5;
+    static final int STOCK = 100;
+
+    @Autowired EntityManager em;
+
+    @Autowired TransactionTemplate tx;
+
+    @Autowired OrderService orderService;
+
+    @Test
+    public void 동시주문_재고초과_판매없음() throws Exception {
+        //given
+        Long memberId = tx.execute(status -> {
+            Member member = new Member();
+            member.setName("buyer");
+            member.setAddress(new Address("서울", "강가", "123-123"));
+            em.persist(member);
+            return member.getId();
+        });
+        Long itemId = tx.execute(status -> {
+            Book book = new Book();
+            book.setName("HOT BOOK");
+            book.setPrice(10000);
+            book.setStockQuantity(STOCK);
+            em.persist(book);
+            return book.getId();
+        });
+
+        //when
+        AtomicInteger ordered = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new CopyOnWriteArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < ORDERS_PER_THREAD; i++) {
+                    try {
+                        orderService.order(memberId, itemId, 1);
+                        ordered.incrementAndGet();
+                    } catch (NotEnoughStockException e) {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS); // 재고 부족 이외의 예외가 있으면 실패
+        }
+        executor.shutdown();
+
+        //then
+        int stock = tx.execute(status -> em.find(Item.class, itemId).getStockQuantity());
+        long orderItems = tx.execute(status -> em.createQuery(
+                        "select count(oi) from OrderItem oi where oi.item.id = :itemId", Long.class)
+                .setParameter("itemId", itemId)
+                .getSingleResult());
+
+        assertEquals(STOCK, ordered.get(), "재고 수량만큼만 주문되어야 한다.");
+        assertEquals(THREADS * ORDERS_PER_THREAD - STOCK, rejected.get(), "나머지는 재고 부족으로 거절되어야 한다.");
+        assertEquals(0, stock, "재고가 음수가 되거나 차감이 유실되면 안된다.");
+        assertEquals(STOCK, orderItems);
+    }
+}
@@ -0,0 +1,94 @@
+package jpabook.jpashop.sql;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.FilterChain;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SqlStatementFilterTest {
+
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    SqlStatementFilter filter = new SqlStatementFilter(registry, 2);
+
+    @Test
+    public void 요청별_SQL_수_헤더와_지표() throws Exception {
+        //given
+        MockHttpServletRequest request = request();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        //when: 같은 형태 3번 (임계치 2 초과) 후 body 쓰기
+        filter.doFilter(request, response, execute(3, true));
+
+        //then
+        assertEquals("3", response.getHeader("X-Sql-Statements"));
+        assertEquals(3, statements().totalAmount());
+        assertEquals(1, nPlusOne().count(), "임계치를 넘게 반복된 SQL 은 N+1 로 집계해야 한다.");
+        assertNull(SqlStatementStats.current(), "요청이 끝나면 스레드에 통계가 남지 않아야 한다.");
+    }
+
+    @Test
+    public void 임계치_이하는_N플러스1_아님() throws Exception {
+        //when
+        filter.doFilter(request(), new MockHttpServletResponse(), execute(2, false));
+
+        //then
+        assertEquals(2, statements().totalAmount());
+        assertNull(registry.find("http.server.requests.sql.n_plus_one").counter());
+    }
+
+    @Test
+    public void 비동기_요청은_async_dispatch_까지_합쳐서_기록() throws Exception {
+        //given: 처음 dispatch 는 SQL 1번 후 비동기 시작
+        MockHttpServletRequest request = request();
+        request.setAsyncSupported(true);
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            SqlStatementStats.current().statement("select * from member", 1);
+            req.startAsync();
+        });
+        assertNull(registry.find("http.server.requests.sql.statements").summary(), "비동기 처리가 끝나기 전에는 기록하지 않는다.");
+
+        //when: async dispatch 에서 SQL 2번 후 렌더링
+        request.setAsyncStarted(false);
+        request.setDispatcherType(DispatcherType.ASYNC);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, execute(2, true));
+
+        //then
+        assertEquals("3", response.getHeader("X-Sql-Statements"));
+        assertEquals(3, statements().totalAmount());
+        assertEquals(1, statements().count(), "요청 1건으로 기록해야 한다.");
+    }
+
+    private MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/orders");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/orders");
+        return request;
+    }
+
+    private FilterChain execute(int times, boolean writeBody) {
+        return (req, res) -> {
+            for (int i = 0; i < times; i++) {
+                SqlStatementStats.current().statement("select * from item where item_id in (?, ?)", 1);
+            }
+            if (writeBody) {
+                res.getWriter().write("ok");
+            }
+        };
+    }
+
+    private DistributionSummary statements() {
+        return registry.get("http.server.requests.sql.statements").tag("uri", "/orders").summary();
+    }
+
+    private Counter nPlusOne() {
+        return registry.get("http.server.requests.sql.n_plus_one").tag("uri", "/orders").counter();
+    }
+}
@@ -0,0 +1,83 @@
+package jpabook.jpashop.sql;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SqlStatementStatsTest {
+
+    @Test
+    public void in절_파라미터_수가_달라도_같은_형태() throws Exception {
+        //when
+        String two = SqlStatementStats.normalize("select * from item where item_id in (?, ?)");
+        String three = SqlStatementStats.normalize("select * from item where item_id in (?, ?, ?)");
+        String nested = SqlStatementStats.normalize("select * from order_item where order_id in (?,?) and item_id in (?, ?, ?) order by 1");
+
+        //then
+        assertEquals("select * from item where item_id in (?)", two);
+        assertEquals(two, three);
+        assertEquals("select * from order_item where order_id in (?) and item_id in (?) order by 1", nested);
+    }
+
+    @Test
+    public void in절이_없으면_원본_그대로() throws Exception {
+        //given
+        String sql = "select * from member where member_id = ?";
+
+        //when, then
+        assertSame(sql, SqlStatementStats.normalize(sql));
+    }
+
+    @Test
+    public void 반복된_형태_집계() throws Exception {
+        //given
+        SqlStatementStats stats = new SqlStatementStats();
+
+        //when
+        stats.statement("select * from member where member_id = ?", 10);
+        stats.statement("select * from item where item_id in (?, ?)", 10);
+        stats.statement("select * from item where item_id in (?, ?, ?)", 10);
+        stats.row();
+
+        //then
+        assertEquals(3, stats.getStatements());
+        assertEquals(30, stats.getJdbcNanos());
+        assertEquals(1, stats.getRows());
+        assertEquals(2, stats.getRepeatedCount());
+        assertEquals("select * from item where item_id in (?)", stats.getRepeatedShape());
+    }
+
+    @Test
+    public void 다른_스레드_작업에_통계_전달() throws Exception {
+        //given: 요청 스레드에서 작업을 넘김 (TaskDecorator)
+        SqlStatementStats stats = new SqlStatementStats();
+        SqlStatementStats.begin(stats);
+        Runnable task;
+        try {
+            task = SqlStatementStats.propagate(() -> SqlStatementStats.current().statement("select 1", 1));
+        } finally {
+            SqlStatementStats.end();
+        }
+
+        //when
+        SqlStatementStats after = CompletableFuture.supplyAsync(() -> {
+            task.run();
+            return SqlStatementStats.current();
+        }).get();
+
+        //then
+        assertEquals(1, stats.getStatements(), "작업 스레드에서 실행한 SQL 도 요청에 집계해야 한다.");
+        assertNull(after, "작업이 끝나면 작업 스레드에 통계가 남지 않아야 한다.");
+    }
+
+    @Test
+    public void 요청_밖에서는_작업을_그대로_반환() throws Exception {
+        //given
+        Runnable task = () -> { };
+
+        //when, then
+        assertSame(task, SqlStatementStats.propagate(task));
+    }
+}